@@ -0,0 +1,56 @@
+package com.prakriti.animalquizapp;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+// decoded animal images, keyed by asset path + target size, bounded in bytes by the device memory class
+// least recently used images are evicted first, so replaying a quiz reuses the already decoded bitmaps
+class AnimalImageCache extends LruCache<String, Bitmap> {
+
+    interface EvictionListener { // gets bitmaps that left the cache, so they can be reused
+        void onBitmapEvicted(Bitmap bitmap);
+    }
+
+    private static final int MEMORY_CLASS_FRACTION = 8; // 1/8th of the app's heap for images
+
+    private final EvictionListener evictionListener;
+
+    AnimalImageCache(int maxBytes, EvictionListener evictionListener) {
+        super(maxBytes);
+        this.evictionListener = evictionListener;
+    }
+
+    static int maxBytesForMemoryClass(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClassMb = activityManager.getMemoryClass(); // per app heap limit in MB, e.g. 32 on low end, 256+ on high end
+        return memoryClassMb * 1024 * 1024 / MEMORY_CLASS_FRACTION;
+    }
+
+    static String keyFor(String assetPath, int targetWidth, int targetHeight) {
+        return assetPath + "@" + targetWidth + "x" + targetHeight;
+    }
+
+    @Override
+    protected int sizeOf(String key, Bitmap bitmap) { // cache is bounded by bytes, not by number of images
+        return bitmap.getAllocationByteCount();
+    }
+
+    @Override
+    protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+        if (oldValue != newValue) {
+            evictionListener.onBitmapEvicted(oldValue);
+        }
+    }
+
+    void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) { // app is in the background & likely to be killed
+            evictAll();
+        }
+        else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) { // foreground but system is low on memory
+            trimToSize(size() / 2);
+        }
+    }
+}
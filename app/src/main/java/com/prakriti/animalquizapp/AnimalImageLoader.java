@@ -0,0 +1,285 @@
+package com.prakriti.animalquizapp;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.prakriti.animalquizapp.core.AnimalImageManifest;
+import com.prakriti.animalquizapp.core.AnimalPack;
+import com.prakriti.animalquizapp.core.MetricsRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// decodes animal images from assets on a background thread
+// bounds are read first, image is downsampled to the size of the ImageView & decoded into a pooled bitmap
+// upcoming images can be prefetched, so showing the next question only has to assign a decoded bitmap
+// decoded images stay in an LRU cache, so replaying the quiz does not decode them again
+// with a packed image set the smallest pre-resized variant that covers the view is decoded instead of the original,
+// read straight out of the memory mapped bundle if the images are bundled
+// images of animal packs are extracted from their zip by the decode thread the first time they are needed
+public class AnimalImageLoader implements AnimalImageCache.EvictionListener {
+
+    public interface Callback { // always called on the main thread
+        void onImageLoaded(String assetPath, Drawable animalImage);
+    }
+
+    private static final int POOL_SIZE = 3; // bitmaps evicted from the cache, waiting to be reused
+
+    private final AssetManager assets;
+    private final Resources resources;
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor(); // one decode at a time is enough
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final BitmapPool bitmapPool = new BitmapPool(POOL_SIZE);
+    private volatile boolean isShutdown = false;
+    private volatile AnimalImageManifest imageManifest; // null -> asset paths are the images themselves
+    private volatile AnimalPackStore animalPackStore; // images of paths starting with AnimalPack.IMAGE_PATH_PREFIX
+
+    // main thread only - decode results are always posted back before touching these
+    private final AnimalImageCache imageCache; // decoded & prefetched images, keyed by path + size
+    private final HashMap<String, Callback> waitingCallbacks = new HashMap<>(); // load() called before decode finished
+    private final HashSet<String> decodesInFlight = new HashSet<>();
+    private Bitmap displayedBitmap; // bitmap currently set on the ImageView
+    private final HashMap<Bitmap, Integer> heldBitmaps = new HashMap<>(); // on screen or about to be -> number of holds
+    private final HashSet<Bitmap> evictedHeldBitmaps = new HashSet<>(); // left the cache while held, pooled once released
+    private int prefetchHits, prefetchMisses; // hit -> image was already decoded when the question needed it
+
+    public AnimalImageLoader(Context context) {
+        this.assets = context.getAssets();
+        this.resources = context.getResources();
+        this.imageCache = new AnimalImageCache(AnimalImageCache.maxBytesForMemoryClass(context), this);
+    }
+
+    public void setImageManifest(AnimalImageManifest imageManifest) {
+        this.imageManifest = imageManifest;
+    }
+
+    public void setAnimalPackStore(AnimalPackStore animalPackStore) {
+        this.animalPackStore = animalPackStore;
+    }
+
+    // assetPath -> path from the catalog, callbacks get the same path back whichever variant was decoded
+    // call from the main thread, callback runs right away if the image was already decoded
+    public void load(String assetPath, int targetWidth, int targetHeight, Callback callback) {
+        String cacheKey = AnimalImageCache.keyFor(assetPath, targetWidth, targetHeight);
+        Bitmap decodedBitmap = imageCache.get(cacheKey);
+        if (decodedBitmap != null) {
+            ++prefetchHits;
+            callback.onImageLoaded(assetPath, new BitmapDrawable(resources, decodedBitmap));
+            return;
+        }
+        ++prefetchMisses; // have to wait for a decode
+        waitingCallbacks.put(cacheKey, callback);
+        if (!decodesInFlight.contains(cacheKey)) { // prefetch may already be decoding it
+            startDecode(assetPath, targetWidth, targetHeight, cacheKey);
+        }
+    }
+
+    // decode in the background & keep the bitmap in the cache until load() asks for it
+    // target size is part of the cache key, so it has to be the size load() will ask for, i.e. the measured view
+    public void prefetch(String assetPath, int targetWidth, int targetHeight) {
+        String cacheKey = AnimalImageCache.keyFor(assetPath, targetWidth, targetHeight);
+        if (imageCache.get(cacheKey) != null || decodesInFlight.contains(cacheKey)) {
+            return;
+        }
+        startDecode(assetPath, targetWidth, targetHeight, cacheKey);
+    }
+
+    public int getPrefetchHits() {
+        return prefetchHits;
+    }
+
+    public int getPrefetchMisses() {
+        return prefetchMisses;
+    }
+
+    public void onTrimMemory(int level) { // main thread, forwarded from the activity
+        imageCache.onTrimMemory(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            bitmapPool.clear();
+        }
+    }
+
+    @Override
+    public void onBitmapEvicted(Bitmap bitmap) { // main thread, cache is only touched from there
+        if (isShutdown) {
+            return; // may still be drawn by the view being destroyed, leave it to GC
+        }
+        if (heldBitmaps.containsKey(bitmap)) {
+            evictedHeldBitmaps.add(bitmap); // still on screen or prepared for it, cannot be decoded into yet
+            return;
+        }
+        bitmapPool.put(bitmap);
+    }
+
+    private void startDecode(final String assetPath, final int targetWidth, final int targetHeight, final String cacheKey) {
+        decodesInFlight.add(cacheKey);
+        decodeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap = null;
+                long decodeStartNanos = MainActivity.metrics.startTimer();
+                try {
+                    bitmap = decodeSampledBitmap(assetPath, targetWidth, targetHeight);
+                }
+                catch (IOException e) {
+                    Log.e("AnimalQuiz", "ERROR", e);
+                }
+                MainActivity.metrics.stopTimer(MetricsRegistry.IMAGE_DECODE, decodeStartNanos); // decode thread, histogram is lock free
+                final Bitmap decodedBitmap = bitmap;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onDecodeFinished(assetPath, cacheKey, decodedBitmap);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onDecodeFinished(String assetPath, String cacheKey, Bitmap bitmap) { // main thread
+        decodesInFlight.remove(cacheKey);
+        Callback callback = waitingCallbacks.remove(cacheKey);
+        if (bitmap == null) {
+            return; // already logged
+        }
+        if (isShutdown) { // view is gone, nobody to show it to
+            return;
+        }
+        imageCache.put(cacheKey, bitmap);
+        if (callback != null) {
+            callback.onImageLoaded(assetPath, new BitmapDrawable(resources, bitmap));
+        }
+    }
+
+    // call from the main thread once the drawable is set on the ImageView
+    public void onImageDisplayed(Drawable animalImage) {
+        Bitmap previousBitmap = displayedBitmap;
+        displayedBitmap = animalImage instanceof BitmapDrawable ? ((BitmapDrawable) animalImage).getBitmap() : null;
+        holdBitmap(displayedBitmap);
+        releaseBitmap(previousBitmap);
+    }
+
+    // image kept for later display, e.g. the prepared next question - its bitmap is not reused until released
+    public void holdImage(Drawable animalImage) {
+        holdBitmap(animalImage instanceof BitmapDrawable ? ((BitmapDrawable) animalImage).getBitmap() : null);
+    }
+
+    public void releaseImage(Drawable animalImage) {
+        releaseBitmap(animalImage instanceof BitmapDrawable ? ((BitmapDrawable) animalImage).getBitmap() : null);
+    }
+
+    private void holdBitmap(Bitmap bitmap) {
+        if (bitmap != null) {
+            Integer holds = heldBitmaps.get(bitmap);
+            heldBitmaps.put(bitmap, holds == null ? 1 : holds + 1);
+        }
+    }
+
+    private void releaseBitmap(Bitmap bitmap) {
+        Integer holds = bitmap == null ? null : heldBitmaps.get(bitmap);
+        if (holds == null) {
+            return;
+        }
+        if (holds > 1) {
+            heldBitmaps.put(bitmap, holds - 1);
+            return;
+        }
+        heldBitmaps.remove(bitmap);
+        if (evictedHeldBitmaps.remove(bitmap) && !isShutdown) {
+            bitmapPool.put(bitmap); // not in the cache anymore & not on screen, safe to decode into
+        }
+    }
+
+    public void shutdown() {
+        isShutdown = true;
+        decodeExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+        displayedBitmap = null; // still attached to the view being destroyed, let GC have it
+        heldBitmaps.clear();
+        evictedHeldBitmaps.clear();
+        waitingCallbacks.clear();
+        decodesInFlight.clear();
+        imageCache.evictAll();
+        bitmapPool.clear();
+    }
+
+    private Bitmap decodeSampledBitmap(String assetPath, int targetWidth, int targetHeight) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        AnimalImageManifest.Variant variant = imageManifest == null ? null : imageManifest.pickVariant(assetPath, targetWidth, targetHeight);
+        if (variant != null) { // size is in the manifest, no header read
+            options.outWidth = variant.width;
+            options.outHeight = variant.height;
+        }
+        else {
+            options.inJustDecodeBounds = true; // read only the header for width & height, no pixels
+            try (InputStream stream = openImage(assetPath, null)) {
+                BitmapFactory.decodeStream(stream, null, options);
+            }
+        }
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+        options.inJustDecodeBounds = false;
+        options.inMutable = true; // required for inBitmap & so this bitmap can go back into the pool later
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888; // images have transparency
+
+        int sampledWidth = (options.outWidth + options.inSampleSize - 1) / options.inSampleSize; // round up to be safe
+        int sampledHeight = (options.outHeight + options.inSampleSize - 1) / options.inSampleSize;
+        options.inBitmap = bitmapPool.getReusable(sampledWidth, sampledHeight, options.inPreferredConfig);
+
+        try (InputStream stream = openImage(assetPath, variant)) {
+            Bitmap bitmap = BitmapFactory.decodeStream(stream, null, options);
+            if (bitmap != null) {
+                return bitmap;
+            }
+        }
+        catch (IllegalArgumentException e) { // pooled bitmap could not be reused, decode into a new one
+            options.inBitmap = null;
+            try (InputStream stream = openImage(assetPath, variant)) {
+                Bitmap bitmap = BitmapFactory.decodeStream(stream, null, options);
+                if (bitmap != null) {
+                    return bitmap;
+                }
+            }
+        }
+        throw new IOException("Could not decode " + assetPath);
+    }
+
+    private InputStream openImage(String assetPath, AnimalImageManifest.Variant variant) throws IOException {
+        if (variant == null) {
+            if (AnimalPack.isPackImagePath(assetPath)) { // from a zip in app storage, not in assets
+                return new BufferedInputStream(new FileInputStream(animalPackStore.getImageFile(assetPath)));
+            }
+            return assets.open(assetPath); // not packed, the original image
+        }
+        if (variant.isInBundle()) {
+            return new ByteBufferInputStream(imageManifest.getBundleSlice(variant)); // slice of the mapped bundle, no file is opened
+        }
+        return assets.open(variant.path);
+    }
+
+    // largest power of 2 that keeps both sides at least as big as the requested size
+    static int calculateInSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int inSampleSize = 1;
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            return inSampleSize; // view not measured, decode full size
+        }
+        while ((width / (inSampleSize * 2)) >= targetWidth && (height / (inSampleSize * 2)) >= targetHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
@@ -0,0 +1,175 @@
+package com.prakriti.animalquizapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.AnimalPack;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// extra animals from zip packs in files/packs, a downloaded pack would be saved there too
+// packs are indexed one at a time in the background, each one is handed over as a bigger catalog as soon as it is read,
+// so startup & quiz resets never wait for them - images are copied out of a zip the first time they are decoded
+public class AnimalPackStore {
+
+    public static final String PACKS_DIRECTORY = "packs"; // in files dir
+    private static final String IMAGE_CACHE_DIRECTORY = "pack_images"; // in cache dir, the system may clear it
+    // types the packs add, for the settings screen - kept in their own file so the settings listener does not see them
+    private static final String PACK_PREFERENCES = "animal_packs";
+    private static final String PACK_TYPES_KEY = "pack_animal_types";
+
+    public interface Listener { // called on the main thread
+        void onAnimalPackIndexed(AnimalCatalog animalCatalog); // catalog so far, earlier animals keep their ids
+        void onAnimalPacksScanned(); // every pack in the folder has been handed over, after the last onAnimalPackIndexed
+    }
+
+    private final File packsDirectory, imageCacheDirectory;
+    private final SharedPreferences packPreferences;
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, AnimalPack> packs = new ConcurrentHashMap<>(); // file name -> pack, read by the decode threads
+    private Listener listener;
+    private AnimalCatalog baseCatalog, animalCatalog; // index thread only, catalog from assets & that plus every pack
+
+    public AnimalPackStore(Context context) {
+        packsDirectory = new File(context.getFilesDir(), PACKS_DIRECTORY);
+        imageCacheDirectory = new File(context.getCacheDir(), IMAGE_CACHE_DIRECTORY);
+        packPreferences = context.getSharedPreferences(PACK_PREFERENCES, Context.MODE_PRIVATE);
+    }
+
+    // categories of the packs indexed last time, so settings can list them before this run's indexing is done
+    public static Set<String> getPackAnimalTypes(Context context) {
+        return context.getSharedPreferences(PACK_PREFERENCES, Context.MODE_PRIVATE).getStringSet(PACK_TYPES_KEY, new HashSet<String>());
+    }
+
+    // base catalog from assets, packs are added after its animals
+    public void start(final AnimalCatalog baseCatalog, Listener listener) {
+        this.listener = listener;
+        indexExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                AnimalPackStore.this.baseCatalog = baseCatalog;
+                animalCatalog = baseCatalog;
+                indexNewPacks();
+            }
+        });
+    }
+
+    // looks for zips added since the last scan, packs already indexed are not read again
+    public void rescan() {
+        if (listener == null || indexExecutor.isShutdown()) {
+            return; // not started yet, start scans anyway
+        }
+        indexExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                indexNewPacks();
+            }
+        });
+    }
+
+    private void indexNewPacks() { // index thread
+        indexPackFiles();
+        mainHandler.post(new Runnable() { // queued after the catalogs of this scan
+            @Override
+            public void run() {
+                if (listener != null) {
+                    listener.onAnimalPacksScanned();
+                }
+            }
+        });
+    }
+
+    private void indexPackFiles() { // index thread
+        File[] zipFiles = packsDirectory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(".zip");
+            }
+        });
+        if (zipFiles == null) {
+            return; // no packs folder, nothing was ever added
+        }
+        Arrays.sort(zipFiles); // same order, so same ids, on every start
+        for (File zipFile : zipFiles) {
+            if (Thread.currentThread().isInterrupted()) {
+                return; // store closed
+            }
+            if (packs.containsKey(zipFile.getName())) {
+                continue;
+            }
+            AnimalPack pack;
+            try {
+                pack = AnimalPack.open(zipFile); // central directory only
+            }
+            catch (IOException e) {
+                Log.e("AnimalQuiz", "ERROR", e); // not a zip, or still being copied - tried again on the next scan
+                continue;
+            }
+            AnimalCatalog.Builder builder = new AnimalCatalog.Builder(animalCatalog);
+            pack.addTo(builder);
+            final AnimalCatalog extendedCatalog = builder.build(); // copied here, the main thread only swaps it in
+            animalCatalog = extendedCatalog;
+            packs.put(pack.getFileName(), pack);
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (listener != null) {
+                        listener.onAnimalPackIndexed(extendedCatalog);
+                    }
+                }
+            });
+        }
+        savePackAnimalTypes();
+    }
+
+    private void savePackAnimalTypes() { // index thread
+        Set<String> packAnimalTypes = new HashSet<>();
+        for (String animalType : animalCatalog.getAnimalTypes()) {
+            if (!baseCatalog.getAnimalTypes().contains(animalType)) {
+                packAnimalTypes.add(animalType); // packs adding to a built in type do not make a new category
+            }
+        }
+        packPreferences.edit().putStringSet(PACK_TYPES_KEY, packAnimalTypes).apply(); // packs removed since last time drop out
+    }
+
+    // the image of a pack animal as a file, extracted from its zip on first use - decode threads only, never the main thread
+    public File getImageFile(String imagePath) throws IOException {
+        AnimalPack pack = packs.get(AnimalPack.getPackFileName(imagePath));
+        if (pack == null) {
+            throw new IOException("Pack not loaded: " + imagePath);
+        }
+        return pack.extractImage(imagePath, imageCacheDirectory);
+    }
+
+    public void close() {
+        listener = null;
+        indexExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+        List<AnimalPack> openPacks = new ArrayList<>(packs.values());
+        packs.clear(); // decodes still running fail with "not loaded" instead of reading a closed zip
+        for (AnimalPack pack : openPacks) {
+            try {
+                pack.close();
+            }
+            catch (IOException e) {
+                Log.e("AnimalQuiz", "ERROR", e);
+            }
+        }
+    }
+}
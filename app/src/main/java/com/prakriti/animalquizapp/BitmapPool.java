@@ -0,0 +1,66 @@
+package com.prakriti.animalquizapp;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// small pool of mutable bitmaps that are no longer on screen, handed to BitmapFactory as inBitmap
+// so decoding the next animal image reuses memory instead of allocating a new bitmap each question
+class BitmapPool {
+
+    private final int maxBitmaps;
+    private final ArrayDeque<Bitmap> reusableBitmaps = new ArrayDeque<>();
+
+    BitmapPool(int maxBitmaps) {
+        this.maxBitmaps = maxBitmaps;
+    }
+
+    // returns a pooled bitmap big enough to hold width x height pixels of the given config, or null
+    synchronized Bitmap getReusable(int width, int height, Bitmap.Config config) {
+        int bytesNeeded = width * height * bytesPerPixel(config);
+        Iterator<Bitmap> iterator = reusableBitmaps.iterator();
+        while (iterator.hasNext()) {
+            Bitmap candidate = iterator.next();
+            if (candidate.isRecycled()) { // should not happen, but never hand out a dead bitmap
+                iterator.remove();
+                continue;
+            }
+            if (candidate.getAllocationByteCount() >= bytesNeeded) { // API 19+ only needs enough bytes, not same size
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    synchronized void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return; // only mutable bitmaps can be reused by BitmapFactory
+        }
+        if (reusableBitmaps.contains(bitmap)) {
+            return;
+        }
+        if (reusableBitmaps.size() >= maxBitmaps) {
+            reusableBitmaps.removeFirst().recycle(); // oldest one goes
+        }
+        reusableBitmaps.addLast(bitmap);
+    }
+
+    synchronized void clear() {
+        for (Bitmap bitmap : reusableBitmaps) {
+            bitmap.recycle();
+        }
+        reusableBitmaps.clear();
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) {
+            return 2;
+        }
+        if (config == Bitmap.Config.ALPHA_8) {
+            return 1;
+        }
+        return 4; // ARGB_8888 and anything else
+    }
+}
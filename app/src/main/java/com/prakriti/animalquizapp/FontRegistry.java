@@ -0,0 +1,70 @@
+package com.prakriti.animalquizapp;
+
+import android.content.res.AssetManager;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// loads quiz fonts from assets only when they are picked, in the background, & keeps them while the view lives
+// only the selected font is loaded at startup, the others when the user switches to them
+public class FontRegistry {
+
+    public interface Callback { // called on the main thread
+        void onFontLoaded(Typeface typeface);
+    }
+
+    private static final String FONTS_FOLDER = "fonts/";
+
+    private final AssetManager assets;
+    private final ExecutorService fontExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final HashMap<String, Typeface> loadedFonts = new HashMap<>(); // main thread only
+    private String latestRequestedFont; // only the last font asked for is applied, if user switches quickly
+
+    public FontRegistry(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    // fontFileName -> value of the font preference, e.g. "Hold On.ttf"
+    public void load(final String fontFileName, final Callback callback) {
+        latestRequestedFont = fontFileName;
+        Typeface loadedFont = loadedFonts.get(fontFileName);
+        if (loadedFont != null) {
+            callback.onFontLoaded(loadedFont);
+            return;
+        }
+        fontExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Typeface typeface;
+                try {
+                    typeface = Typeface.createFromAsset(assets, FONTS_FOLDER + fontFileName);
+                }
+                catch (RuntimeException e) { // thrown if the font file is missing or broken
+                    Log.e("AnimalQuiz", "ERROR", e);
+                    return;
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        loadedFonts.put(fontFileName, typeface);
+                        if (fontFileName.equals(latestRequestedFont)) {
+                            callback.onFontLoaded(typeface);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    public void shutdown() {
+        fontExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+        loadedFonts.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package com.prakriti.animalquizapp;
+
+import android.view.Choreographer;
+
+import com.prakriti.animalquizapp.core.FrameStats;
+
+// records frame timing with Choreographer while running, e.g. from a correct answer until the next question is revealed
+// main thread only
+class FrameDropMonitor implements Choreographer.FrameCallback {
+
+    private final FrameStats frameStats;
+    private boolean isRunning = false;
+
+    FrameDropMonitor(float refreshRate) {
+        frameStats = new FrameStats((long) (1_000_000_000L / refreshRate));
+    }
+
+    void start() {
+        if (isRunning) {
+            return;
+        }
+        isRunning = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void stop() {
+        if (!isRunning) {
+            return;
+        }
+        isRunning = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        frameStats.endStretch();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) { // vsync time of the frame being drawn
+        if (!isRunning) {
+            return;
+        }
+        frameStats.onFrame(frameTimeNanos);
+        Choreographer.getInstance().postFrameCallback(this); // every frame until stopped
+    }
+
+    FrameStats getFrameStats() { // totals since the last reset
+        return frameStats;
+    }
+}
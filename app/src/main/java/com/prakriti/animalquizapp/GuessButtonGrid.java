@@ -0,0 +1,71 @@
+package com.prakriti.animalquizapp;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.Button;
+import android.widget.LinearLayout;
+
+// guess buttons for any number of options up to MAX_OPTIONS, laid out in rows of 2 to 4 columns
+// all rows & buttons are created once with the view & recycled, changing the number of options only
+// re-attaches pooled buttons to pooled rows - nothing is inflated, & the grid is left alone when the size does not change
+class GuessButtonGrid {
+
+    static final int MAX_OPTIONS = 16; // largest value in num_of_guesses_entry_values
+
+    private final LinearLayout[] rows = new LinearLayout[MAX_OPTIONS / 2]; // most rows are needed with 2 columns
+    private final Button[] buttons = new Button[MAX_OPTIONS]; // button i always shows option i, its tag
+    private int numOfButtons, numOfColumns;
+
+    GuessButtonGrid(LinearLayout gridLayout, View.OnClickListener guessListener) { // gridLayout -> vertical, empty
+        Context context = gridLayout.getContext();
+        int margin = context.getResources().getDimensionPixelSize(R.dimen.margin);
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = new LinearLayout(context);
+            rows[row].setOrientation(LinearLayout.HORIZONTAL);
+            rows[row].setVisibility(View.GONE);
+            gridLayout.addView(rows[row], new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT));
+        }
+        for (int optionIndex = 0; optionIndex < buttons.length; optionIndex++) {
+            Button guessButton = new Button(context);
+            guessButton.setLines(2); // fixed height & width, so changing the text only redraws, no new layout pass
+            guessButton.setTag(optionIndex); // option index of this button, for the quiz engine
+            guessButton.setOnClickListener(guessListener);
+            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1); // equal widths
+            params.setMargins(margin, margin, margin, margin);
+            guessButton.setLayoutParams(params);
+            buttons[optionIndex] = guessButton;
+        }
+    }
+
+    // shows the first numOfButtons buttons, returns false if the grid already had that size
+    boolean setNumOfButtons(int numOfButtons) {
+        numOfButtons = Math.max(1, Math.min(numOfButtons, MAX_OPTIONS));
+        if (numOfButtons == this.numOfButtons) {
+            return false;
+        }
+        this.numOfButtons = numOfButtons;
+        numOfColumns = numOfButtons <= 6 ? 2 : numOfButtons <= 9 ? 3 : 4; // keeps the image big enough for 16 options
+        for (LinearLayout row : rows) {
+            row.removeAllViews(); // detached buttons stay in the pool
+            row.setWeightSum(numOfColumns); // buttons in a shorter last row keep the same width
+        }
+        int textSize = numOfColumns == 2 ? 24 : numOfColumns == 3 ? 18 : 14; // names must still fit on 2 lines
+        for (int optionIndex = 0; optionIndex < numOfButtons; optionIndex++) {
+            buttons[optionIndex].setTextSize(textSize);
+            rows[optionIndex / numOfColumns].addView(buttons[optionIndex]);
+        }
+        int numOfRows = (numOfButtons + numOfColumns - 1) / numOfColumns;
+        for (int row = 0; row < rows.length; row++) {
+            rows[row].setVisibility(row < numOfRows ? View.VISIBLE : View.GONE);
+        }
+        return true;
+    }
+
+    int getNumOfButtons() { // buttons currently shown
+        return numOfButtons;
+    }
+
+    Button getButton(int optionIndex) { // also pooled ones, so styling applies to buttons shown later
+        return buttons[optionIndex];
+    }
+}
@@ -1,9 +1,12 @@
 package com.prakriti.animalquizapp;
 
+import android.app.AlertDialog;
+import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.graphics.Typeface;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.snackbar.Snackbar;
@@ -12,107 +15,293 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.preference.PreferenceManager;
 
+import android.util.Log;
 import android.view.View;
 
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.ViewTreeObserver;
 import android.widget.Toast;
 
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.AnimalImageManifest;
+import com.prakriti.animalquizapp.core.MetricsRegistry;
+import com.prakriti.animalquizapp.core.StartupTrace;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class MainActivity extends AppCompatActivity {
 // launch mode as single top in manifests file
 
     public static final String NUM_OF_GUESSES_KEY = "settings_numberOfGuesses";
+    public static final String NUM_OF_QUESTIONS_KEY = "settings_numberOfQuestions";
     public static final String ANIMAL_TYPES_KEY = "settings_animalTypes";
     public static final String BG_COLOR_KEY = "settings_chooseBackgroundColor";
     public static final String FONT_KEY = "settings_chooseFont";
+    public static final String TIMED_MODE_KEY = "settings_timedMode";
+    public static final String SECONDS_PER_QUESTION_KEY = "settings_secondsPerQuestion";
 
-    private boolean isSettingsChanged = false;
+    public static final String STARTUP_TRACE_FILE = "startup_trace.json"; // in files dir, machine readable
+    public static final String METRICS_FILE = "metrics.json"; // in files dir, written when exported from the metrics screen
 
-    public static Typeface holdOn, murberry, qabilFreeTrial;
+    // phases of the cold start, one trace per process - spans are recorded once, later activity restarts don't add to it
+    public static final StartupTrace startupTrace = new StartupTrace();
+    private static boolean isStartupTraceDumped = false;
+
+    // timings & counts of the quiz screen, debug builds only - when disabled recording is a flag check
+    public static final MetricsRegistry metrics = new MetricsRegistry(BuildConfig.DEBUG);
+
+    private boolean isSettingsChanged = false;
+    private static final long SETTINGS_BATCH_DELAY_MS = 250; // changes closer together than this are applied at once
+    private final Handler settingsHandler = new Handler(Looper.getMainLooper());
+    private final LinkedHashSet<String> pendingSettingKeys = new LinkedHashSet<>(); // changed since the last batch, in order
 
     //  ref to Main Fragment
     MainFragment mainQuizFragment;
+    private final QuestionBank questionBank = QuestionBank.getInstance(); // animal catalog, scanned once per process in the background
+    private AnimalPackStore animalPackStore; // extra animals from zips in files/packs, indexed after the question bank
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        startupTrace.begin(StartupTrace.FIRST_FRAME); // ends when the window draws for the first time
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
         Toolbar toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
+        getWindow().getDecorView().getViewTreeObserver().addOnPreDrawListener(firstFrameListener);
 
-        holdOn = Typeface.createFromAsset(getAssets(), "fonts/Hold On.ttf");
-        murberry = Typeface.createFromAsset(getAssets(), "fonts/Murberry.ttf");
-        qabilFreeTrial = Typeface.createFromAsset(getAssets(), "fonts/Qabil Free Trial.ttf");
-
+        startupTrace.begin(StartupTrace.PREFS);
         // specify default values for when app is running for the first time
         PreferenceManager.setDefaultValues(this, R.xml.quiz_preferences, false);
             // readAgain - false, app shouldn't read default values after installing & having changed preferences
         PreferenceManager.getDefaultSharedPreferences(this).registerOnSharedPreferenceChangeListener(settingsChangedListener);
             // get preferences & create a listener to be called each time settings are changed
+        startupTrace.end(StartupTrace.PREFS);
 
         mainQuizFragment = (MainFragment) getSupportFragmentManager().findFragmentById(R.id.animalQuizFragment); // ref to fragment
             // pass id of fragment inside content_main.xml
 
         // also get any previously saved changes upon starting up of app
+        startupTrace.begin(StartupTrace.APPLY_SETTINGS);
         mainQuizFragment.changeQuizGuessRows(PreferenceManager.getDefaultSharedPreferences(this));
+        mainQuizFragment.changeQuizLength(PreferenceManager.getDefaultSharedPreferences(this));
         mainQuizFragment.changeAnimalTypesInQuiz(PreferenceManager.getDefaultSharedPreferences(this));
         mainQuizFragment.changeQuizBackgroundColor(PreferenceManager.getDefaultSharedPreferences(this));
         mainQuizFragment.changeQuizFont(PreferenceManager.getDefaultSharedPreferences(this));
-        mainQuizFragment.resetAnimalQuiz(); // reset with changes
+        mainQuizFragment.changeTimedMode(PreferenceManager.getDefaultSharedPreferences(this));
+        startupTrace.end(StartupTrace.APPLY_SETTINGS);
+        animalPackStore = new AnimalPackStore(this);
+        startupTrace.begin(StartupTrace.CATALOG_SCAN);
+        questionBank.load(this, questionBankListener); // right away after a rotation, the catalog is kept by the process
         isSettingsChanged = false; // now settings are not changed
     }
 
+    private final QuestionBank.Listener questionBankListener = new QuestionBank.Listener() {
+        @Override
+        public void onQuestionBankLoaded(AnimalCatalog animalCatalog, AnimalImageManifest imageManifest) {
+            startupTrace.end(StartupTrace.CATALOG_SCAN);
+            mainQuizFragment.setAnimalCatalog(animalCatalog, imageManifest);
+            mainQuizFragment.setAnimalPackStore(animalPackStore);
+            mainQuizFragment.startQuiz(); // saved quiz is continued, otherwise reset with changes, once animals are known
+            animalPackStore.start(animalCatalog, new AnimalPackStore.Listener() { // quiz is already running, packs join it
+                @Override
+                public void onAnimalPackIndexed(AnimalCatalog extendedCatalog) {
+                    mainQuizFragment.onAnimalCatalogExtended(extendedCatalog);
+                }
+
+                @Override
+                public void onAnimalPacksScanned() {
+                    mainQuizFragment.onAnimalPacksScanned();
+                }
+            });
+        }
+    };
+
+    private final ViewTreeObserver.OnPreDrawListener firstFrameListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            getWindow().getDecorView().getViewTreeObserver().removeOnPreDrawListener(this); // only the first frame
+            startupTrace.end(StartupTrace.FIRST_FRAME);
+            dumpStartupTraceIfComplete();
+            return true; // go ahead with drawing
+        }
+    };
+
+    // called when a startup phase ends, writes the trace out once the quiz is on screen
+    public void dumpStartupTraceIfComplete() {
+        if (isStartupTraceDumped || !startupTrace.isComplete(StartupTrace.FIRST_FRAME)
+                || !startupTrace.isComplete(StartupTrace.FIRST_DECODE)) {
+            return;
+        }
+        isStartupTraceDumped = true;
+        String traceJson = startupTrace.toJson();
+        Log.i("AnimalQuiz", "Startup trace: " + traceJson);
+        writeJsonInBackground(new File(getFilesDir(), STARTUP_TRACE_FILE), traceJson, "StartupTraceDump");
+    }
+
+    private void writeJsonInBackground(final File file, final String json, String threadName) {
+        new Thread(new Runnable() { // no disk writes on the main thread
+            @Override
+            public void run() {
+                try (FileOutputStream stream = new FileOutputStream(file)) {
+                    stream.write(json.getBytes(StandardCharsets.UTF_8));
+                }
+                catch (IOException e) {
+                    Log.e("AnimalQuiz", "ERROR", e);
+                }
+            }
+        }, threadName).start();
+    }
+
+    private void showMetrics() {
+        String readableMetrics = metrics.toReadableString();
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.metrics_title)
+                .setMessage(readableMetrics.isEmpty() ? getString(R.string.metrics_empty) : readableMetrics)
+                .setPositiveButton(android.R.string.ok, null)
+                .setNeutralButton(R.string.metrics_reset, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        metrics.reset();
+                    }
+                })
+                .setNegativeButton(R.string.metrics_export, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        File metricsFile = new File(getFilesDir(), METRICS_FILE);
+                        writeJsonInBackground(metricsFile, metrics.toJson(), "MetricsExport");
+                        Toast.makeText(MainActivity.this, getString(R.string.metrics_exported, metricsFile.getPath()),
+                                Toast.LENGTH_LONG).show();
+                    }
+                })
+                .show();
+    }
+
+    @Override // adb shell dumpsys activity com.prakriti.animalquizapp/.MainActivity --startup-trace (or --metrics)
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        if (args != null && Arrays.asList(args).contains("--startup-trace")) {
+            writer.println(startupTrace.toJson());
+            return;
+        }
+        if (args != null && Arrays.asList(args).contains("--metrics")) {
+            writer.println(metrics.toJson());
+            return;
+        }
+        super.dump(prefix, fd, writer, args);
+    }
+
     private SharedPreferences.OnSharedPreferenceChangeListener settingsChangedListener = new SharedPreferences.OnSharedPreferenceChangeListener() {
         @Override // called whenever user makes changes to settings
         public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
             isSettingsChanged = true; // when settings are changed
-            switch (key) { // key passed here as arg
-
-                case NUM_OF_GUESSES_KEY:
-                    mainQuizFragment.changeQuizGuessRows(sharedPreferences); // pass received param
-                    mainQuizFragment.resetAnimalQuiz(); // reset quiz with changed guess options
-                    Toast.makeText(MainActivity.this, R.string.changes_applied, Toast.LENGTH_SHORT).show();
-                    break;
-
-                case ANIMAL_TYPES_KEY: // check for what value was selected, coz multiple options
-                    Set<String> animalTypes = sharedPreferences.getStringSet(ANIMAL_TYPES_KEY, null);
-                        // string set of default values can be specified in above line --------
-                    if(animalTypes != null && animalTypes.size()>0) {
-                        mainQuizFragment.changeAnimalTypesInQuiz(sharedPreferences);
-                        mainQuizFragment.resetAnimalQuiz();
-                        Toast.makeText(MainActivity.this, R.string.changes_applied, Toast.LENGTH_SHORT).show();
-                    }
-                    else { // both checkboxes are unchecked, set is empty
-                        SharedPreferences.Editor editor = sharedPreferences.edit();
-                        animalTypes.add(getString(R.string.default_animal_type)); // put default value into the empty set
-                            // check default value already specified in xml preferences file
-                        editor.putStringSet(ANIMAL_TYPES_KEY, animalTypes); // pass & save set to preferences
-                        editor.apply();
-                        Toast.makeText(MainActivity.this, R.string.animal_type_error, Toast.LENGTH_SHORT).show();
-                    }
-                    break;
-
-                case BG_COLOR_KEY:
-                    mainQuizFragment.changeQuizBackgroundColor(sharedPreferences);
-                    // mainQuizFragment.resetAnimalQuiz(); // not necessary?
-                    Toast.makeText(MainActivity.this, R.string.changes_applied, Toast.LENGTH_SHORT).show();
-                    break;
-
-                case FONT_KEY:
-                    mainQuizFragment.changeQuizFont(sharedPreferences);
-                    // mainQuizFragment.resetAnimalQuiz(); // not necessary ?
-                    Toast.makeText(MainActivity.this, R.string.changes_applied, Toast.LENGTH_SHORT).show();
-                    break;
+            // quick toggles in the settings screen come in bursts, apply them together once they settle
+            pendingSettingKeys.add(key);
+            settingsHandler.removeCallbacks(applyPendingSettings);
+            settingsHandler.postDelayed(applyPendingSettings, SETTINGS_BATCH_DELAY_MS);
+        }
+    };
+
+    // each changed setting is applied once per batch, & only what it affects is redone - quiz progress is kept
+    private final Runnable applyPendingSettings = new Runnable() {
+        @Override
+        public void run() {
+            SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(MainActivity.this);
+            boolean isAnyChangeApplied = false;
+            for (String key : pendingSettingKeys) {
+                switch (key) {
+
+                    case NUM_OF_GUESSES_KEY:
+                        mainQuizFragment.applyGuessRowsChange(sharedPreferences); // only the buttons of the current question change
+                        isAnyChangeApplied = true;
+                        break;
+
+                    case NUM_OF_QUESTIONS_KEY:
+                        mainQuizFragment.applyQuizLengthChange(sharedPreferences); // questions added or dropped at the end
+                        isAnyChangeApplied = true;
+                        break;
+
+                    case ANIMAL_TYPES_KEY: // check for what value was selected, coz multiple options
+                        Set<String> animalTypes = sharedPreferences.getStringSet(ANIMAL_TYPES_KEY, null);
+                            // string set of default values can be specified in above line --------
+                        if(animalTypes != null && animalTypes.size()>0) {
+                            mainQuizFragment.applyAnimalTypesChange(sharedPreferences); // upcoming questions are patched, no restart
+                            isAnyChangeApplied = true;
+                        }
+                        else { // both checkboxes are unchecked, set is empty
+                            SharedPreferences.Editor editor = sharedPreferences.edit();
+                            Set<String> defaultAnimalTypes = new HashSet<>(); // set returned by prefs must not be modified
+                            defaultAnimalTypes.add(getString(R.string.default_animal_type)); // put default value into the empty set
+                                // check default value already specified in xml preferences file
+                            editor.putStringSet(ANIMAL_TYPES_KEY, defaultAnimalTypes); // pass & save set to preferences
+                            editor.apply(); // comes back through the listener as a new batch
+                            Toast.makeText(MainActivity.this, R.string.animal_type_error, Toast.LENGTH_SHORT).show();
+                        }
+                        break;
+
+                    case BG_COLOR_KEY:
+                        mainQuizFragment.changeQuizBackgroundColor(sharedPreferences);
+                        isAnyChangeApplied = true;
+                        break;
+
+                    case FONT_KEY:
+                        mainQuizFragment.changeQuizFont(sharedPreferences);
+                        isAnyChangeApplied = true;
+                        break;
+
+                    case TIMED_MODE_KEY:
+                        mainQuizFragment.applyTimedModeChange(sharedPreferences); // new quiz, scored the other way
+                        isAnyChangeApplied = true;
+                        break;
+
+                    case SECONDS_PER_QUESTION_KEY:
+                        mainQuizFragment.changeSecondsPerQuestion(sharedPreferences); // question on screen counts against it too
+                        isAnyChangeApplied = true;
+                        break;
+                }
+            }
+            pendingSettingKeys.clear();
+            if (isAnyChangeApplied) { // one toast for the whole batch
+                Toast.makeText(MainActivity.this, R.string.changes_applied, Toast.LENGTH_SHORT).show();
             }
         }
     };
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        animalPackStore.rescan(); // packs added while the app was in the background, no-op before the first scan
+    }
+
+    @Override
+    protected void onDestroy() {
+        questionBank.removeListener(questionBankListener); // scan still running, the next activity gets its result
+        animalPackStore.close();
+        settingsHandler.removeCallbacks(applyPendingSettings); // fragment is going away, pending changes are applied on the next start
+        PreferenceManager.getDefaultSharedPreferences(this).unregisterOnSharedPreferenceChangeListener(settingsChangedListener);
+        super.onDestroy();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        mainQuizFragment.onTrimMemory(level); // release decoded images when the system needs memory
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate the menu; this adds items to the action bar if it is present
         getMenuInflater().inflate(R.menu.menu_main, menu);
+        menu.findItem(R.id.action_startup_trace).setVisible(BuildConfig.DEBUG); // debug builds only
+        menu.findItem(R.id.action_metrics).setVisible(metrics.isEnabled()); // hidden while nothing is recorded
         return true;
     }
 
@@ -123,6 +312,19 @@ public class MainActivity extends AppCompatActivity {
             case R.id.action_settings:
                 startActivity(new Intent(this, SettingsActivity.class));
                 break;
+            case R.id.action_startup_trace:
+                new AlertDialog.Builder(this)
+                        .setTitle(R.string.startup_trace_title)
+                        .setMessage(startupTrace.toReadableString())
+                        .setPositiveButton(android.R.string.ok, null)
+                        .show();
+                break;
+            case R.id.action_metrics:
+                showMetrics();
+                break;
+            case R.id.action_score_history:
+                mainQuizFragment.showScoreHistory();
+                break;
         }
         return super.onOptionsItemSelected(item);
     }
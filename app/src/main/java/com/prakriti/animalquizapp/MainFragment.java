@@ -1,15 +1,14 @@
 package com.prakriti.animalquizapp;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.app.AlertDialog;
-import android.app.Dialog;
 import android.content.DialogInterface;
 import android.content.SharedPreferences;
-import android.content.res.AssetManager;
 import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
-import android.os.Handler;
+import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -20,39 +19,74 @@ import android.view.animation.AnimationUtils;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
+import android.widget.ProgressBar;
 import android.widget.TextView;
+import android.widget.Toast;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import androidx.annotation.ColorRes;
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
-import androidx.fragment.app.DialogFragment;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import androidx.preference.PreferenceManager;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.AnimalImageManifest;
+import com.prakriti.animalquizapp.core.MetricsRegistry;
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.QuizHistoryStore;
+import com.prakriti.animalquizapp.core.QuizResult;
+import com.prakriti.animalquizapp.core.RandomSources;
+import com.prakriti.animalquizapp.core.StartupTrace;
+import com.prakriti.animalquizapp.core.TimedScore;
 
 public class MainFragment extends Fragment implements View.OnClickListener {
 
-    private static final int NUM_OF_QUESTIONS_IN_QUIZ = 10;
-
-    private List<String> fullAnimalNamesList, animalNamesList; // full list for animal type in quiz, names list for random guess options for 10 questions
-    private Set<String> animalTypesInQuizSet; // no duplicate values
-    private String correctAnswer;
-    private int numOfGuesses, numOfCorrectAnswers, numOfGuessRows; // no of guess rows will be as per user settings
-    private SecureRandom secureRandomNumber; // to get random animal in quiz
-    private Handler handler; // for small delay between questions
+    private static final int IMAGE_PREFETCH_DEPTH = 1; // how many upcoming question images are decoded ahead
+    private static final int SCORE_HISTORY_PAGE_SIZE = 10; // results read per page of the score history
+
+    // quiz in progress, kept in the saved state so it survives the process being killed in the background
+    private static final String STATE_QUIZ_ID = "quizId";
+    private static final String STATE_ANIMAL_NAMES = "quizAnimalNames";
+    private static final String STATE_NUM_OF_CORRECT_ANSWERS = "quizNumOfCorrectAnswers";
+    private static final String STATE_NUM_OF_GUESSES = "quizNumOfGuesses";
+    private static final String STATE_NUM_OF_GUESSES_FOR_QUESTION = "quizNumOfGuessesForQuestion";
+    private static final String STATE_TIMED_POINTS = "quizTimedPoints";
+    private static final String STATE_TIMED_QUESTIONS = "quizTimedQuestions";
+    private static final String STATE_TIMED_LATENCY_NANOS = "quizTimedLatencyNanos";
+
+    private QuizEngine quizEngine; // questions, answer checking & score - this fragment only renders it
+    private AnimalCatalog animalCatalog; // all animals with ids & display names, null until the question bank is loaded
+    private QuestionFrame shownFrame = new QuestionFrame(); // question on screen
+    private QuestionFrame preparedFrame = new QuestionFrame(); // next question, built while the answer is revealed
+    private boolean isNextQuestionPrepared = false; // preparedFrame is waiting to be swapped in
+    private FrameDropMonitor frameDropMonitor; // frame timing of the transitions between questions
+    private boolean isPrefetchWaitingForLayout = false; // upcoming images are decoded once imageAnimal has its size
+    private QuizTaskScheduler taskScheduler; // for small delay between questions, cancelled with the view
+    private Animator questionAnimator; // reveal running now, if any
+    private long transitionStartNanos = MetricsRegistry.NOT_TIMED; // correct answer of the question being replaced
     private Animation wrongAnswerAnimation;
+    private AnimalImageLoader imageLoader; // decodes animal images off the main thread
+    private FontRegistry fontRegistry; // loads the selected font in the background
+    private ThemePalette themePalette; // colours currently applied
+    private QuizHistoryStore historyStore; // finished quizzes & answered questions, written in the background
+    private long quizId; // start time of the quiz on screen, 0 before the first quiz
+    private QuizEngine.Snapshot savedQuiz; // from the saved state, continued once the question bank is loaded
+    private boolean isIndexingPacks = false; // pack animals of a saved quiz are not in the catalog until this is done
+    private boolean isTimedMode = false; // countdown per question, faster answers score more
+    private QuestionCountdown questionCountdown; // starts once the question's image is on screen, never while it decodes
+    private final TimedScore timedScore = new TimedScore(); // points of the timed quiz so far
 
     private LinearLayout quizLinearLayout; // for background color of main page
     private TextView txtQuestionNumber, txtAnswer; // for question number changes & answer
     private ImageView imageAnimal;
-    private LinearLayout[] rowsOfGuesses; // for each row of linear layout holding guess buttons in fragment
+    private ProgressBar countdownBar; // time left for the question, timed mode only
+    private GuessButtonGrid guessButtonGrid; // pooled guess buttons, as many shown as the user selected
 
     public MainFragment() {}
 
@@ -62,10 +96,32 @@ public class MainFragment extends Fragment implements View.OnClickListener {
         // viewgroup container is content_main.xml for fragment_main.xml
         View view = inflater.inflate(R.layout.fragment_main, container, false); // container is container of the fragment in content_main.xml
 
-        fullAnimalNamesList = new ArrayList<>();
-        animalNamesList = new ArrayList<>();
-        secureRandomNumber = new SecureRandom();
-        handler = new Handler();
+        quizEngine = new QuizEngine(RandomSources.fast()); // to get random animal in quiz, no entropy gathering needed
+        quizEngine.setAdaptiveDifficulty(true); // animals the player gets wrong come back more often
+        taskScheduler = new QuizTaskScheduler();
+        imageLoader = new AnimalImageLoader(getActivity());
+        fontRegistry = new FontRegistry(getActivity().getAssets());
+        frameDropMonitor = new FrameDropMonitor(getActivity().getWindowManager().getDefaultDisplay().getRefreshRate());
+        historyStore = new QuizHistoryStore(new File(getActivity().getFilesDir(), "history"), QuizHistoryStore.DEFAULT_BATCH_DELAY_MS);
+        historyStore.setErrorListener(new QuizHistoryStore.ErrorListener() {
+            @Override
+            public void onWriteFailed(IOException e) { // store thread, the batch is retried
+                Log.e("AnimalQuiz", "ERROR", e);
+            }
+
+            @Override
+            public void onRecordsLost(IOException e, int numOfQuestions, int numOfResults) { // store thread, after close
+                Log.e("AnimalQuiz", "Score history lost " + numOfQuestions + " questions & " + numOfResults + " results", e);
+            }
+        });
+        if (savedInstanceState != null && savedInstanceState.containsKey(STATE_ANIMAL_NAMES)) {
+            quizId = savedInstanceState.getLong(STATE_QUIZ_ID);
+            savedQuiz = new QuizEngine.Snapshot(savedInstanceState.getStringArray(STATE_ANIMAL_NAMES),
+                    savedInstanceState.getInt(STATE_NUM_OF_CORRECT_ANSWERS), savedInstanceState.getInt(STATE_NUM_OF_GUESSES),
+                    savedInstanceState.getInt(STATE_NUM_OF_GUESSES_FOR_QUESTION));
+            timedScore.restore(savedInstanceState.getInt(STATE_TIMED_POINTS), savedInstanceState.getInt(STATE_TIMED_QUESTIONS),
+                    savedInstanceState.getLong(STATE_TIMED_LATENCY_NANOS));
+        }
 
         wrongAnswerAnimation = AnimationUtils.loadAnimation(getContext(), R.anim.wrong_answer_animations); // pass anim xml file & activity's context
             // context by getActivity() if Fragment class is extended
@@ -75,56 +131,110 @@ public class MainFragment extends Fragment implements View.OnClickListener {
         txtQuestionNumber = view.findViewById(R.id.txtQuestionNumber);
         txtAnswer = view.findViewById(R.id.txtAnswer);
         imageAnimal = view.findViewById(R.id.imageAnimal);
+        countdownBar = view.findViewById(R.id.progressCountdown);
+        questionCountdown = new QuestionCountdown(countdownBar, TimeUnit.SECONDS.toNanos(10), timeUpListener);
 
-        rowsOfGuesses = new LinearLayout[3];
-        rowsOfGuesses[0] = view.findViewById(R.id.fragmentLLFirstRow);
-        rowsOfGuesses[1] = view.findViewById(R.id.fragmentLLSecondRow);
-        rowsOfGuesses[2] = view.findViewById(R.id.fragmentLLThirdRow);
-
-        for(LinearLayout row : rowsOfGuesses) {
-            for(int column = 0; column <row.getChildCount(); column++) { // iterate over children in view i.e the linear layout
-                Button guessButton = (Button) row.getChildAt(column); // get each child, getChildAt returns a View by specifying index
-                guessButton.setOnClickListener(this); // set listener for each button
-                guessButton.setTextSize(24); // set text size
-            }
-        }
-        txtQuestionNumber.setText(getString(R.string.question_number, 1, NUM_OF_QUESTIONS_IN_QUIZ));
+        guessButtonGrid = new GuessButtonGrid((LinearLayout) view.findViewById(R.id.guessGrid), this); // buttons are created once here
+        txtQuestionNumber.setText(getString(R.string.question_number, 1, QuizEngine.DEFAULT_NUM_OF_QUESTIONS));
             // formatted string, then arguments array is passed // 1 -> %1$d, total num of questions -> %2$d
+        changeQuizBackgroundColor(PreferenceManager.getDefaultSharedPreferences(getActivity()));
+            // colours are set before the first layout, so the quiz never shows up in white & then recolours
         return view;
     }
 
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        QuizEngine.Snapshot snapshot = savedQuiz; // saved again before the question bank was loaded
+        if (snapshot == null && quizId != 0 && quizEngine.isQuizInProgress()) { // finished quizzes are not continued
+            snapshot = quizEngine.saveSnapshot();
+        }
+        if (snapshot != null) {
+            outState.putLong(STATE_QUIZ_ID, quizId);
+            outState.putStringArray(STATE_ANIMAL_NAMES, snapshot.animalNames);
+            outState.putInt(STATE_NUM_OF_CORRECT_ANSWERS, snapshot.numOfCorrectAnswers);
+            outState.putInt(STATE_NUM_OF_GUESSES, snapshot.numOfGuesses);
+            outState.putInt(STATE_NUM_OF_GUESSES_FOR_QUESTION, snapshot.numOfGuessesForQuestion);
+            outState.putInt(STATE_TIMED_POINTS, timedScore.getTotalPoints()); // question on screen gets a new countdown
+            outState.putInt(STATE_TIMED_QUESTIONS, timedScore.getNumOfQuestions());
+            outState.putLong(STATE_TIMED_LATENCY_NANOS, timedScore.getTotalLatencyNanos());
+        }
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        taskScheduler.bindTo(getViewLifecycleOwner()); // pending question changes go away with this view
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        questionCountdown.resume(); // only if a question was being timed
+    }
+
+    @Override
+    public void onPause() {
+        questionCountdown.pause(); // time in the background is not the player's
+        super.onPause();
+    }
+
+    @Override
+    public void onStop() {
+        historyStore.flush(); // app may be killed in the background, don't wait for the batch
+        super.onStop();
+    }
+
+    @Override
+    public void onDestroyView() {
+        if (questionAnimator != null) { // listeners first, so cancelling does not swap in the next question
+            questionAnimator.removeAllListeners();
+            questionAnimator.cancel();
+        }
+        frameDropMonitor.stop();
+        questionCountdown.cancel(); // frame callback must not outlive the view
+        imageAnimal.removeOnLayoutChangeListener(prefetchAfterLayoutListener);
+        isPrefetchWaitingForLayout = false;
+        imageLoader.shutdown(); // drop pending decodes & pooled bitmaps along with the view
+        fontRegistry.shutdown();
+        historyStore.close(); // pending records are still written, or reported as lost if the disk keeps failing
+        super.onDestroyView();
+    }
+
     @Override
     public void onClick(View v) { // v -> clicked view i.e. button
+        long answerStartNanos = MainActivity.metrics.startTimer();
+        long answeredAtNanos = System.nanoTime(); // before any work, handling the tap is not the player's time
         Button btnSelectedGuess = (Button) v;
-        String guessSelected = btnSelectedGuess.getText().toString();
-        String answer = getExactAnimalName(correctAnswer);
-        ++numOfGuesses; // guesses made by user, used for calculating score
+        int answeredAnimalId = quizEngine.getCurrentAnimalId(); // engine moves on to the next question if correct
+        QuizEngine.AnswerResult answerResult = quizEngine.checkAnswer((Integer) btnSelectedGuess.getTag());
 
-        if(guessSelected.equals(answer)) { // guessed correctly
-            ++numOfCorrectAnswers; // for checking end of quiz
+        if(answerResult != QuizEngine.AnswerResult.WRONG) { // guessed correctly
             txtAnswer.setText(R.string.correct_answer);
             disableAllGuessButtons(); // disable all buttons once correct answer is selected
-
-            if(numOfCorrectAnswers == NUM_OF_QUESTIONS_IN_QUIZ) { // end of quiz is reached, 10 questions have been answered
+            if (isTimedMode) {
+                long latencyNanos = questionCountdown.stop(answeredAtNanos); // monotonic clock, from the moment the image was up
+                int points = timedScore.recordAnswer(latencyNanos, questionCountdown.getTimeLimitNanos(),
+                        quizEngine.getNumOfGuessesForLastQuestion());
+                MainActivity.metrics.recordNanos(MetricsRegistry.ANSWER_LATENCY, latencyNanos);
+                txtAnswer.setText(getString(R.string.correct_answer_points, points));
+            }
+            MainActivity.metrics.increment(MetricsRegistry.CORRECT_ANSWERS);
+            historyStore.recordQuestion(quizId, quizEngine.getNumOfCorrectAnswers(),
+                    animalCatalog.getAnimalName(answeredAnimalId),
+                    quizEngine.getNumOfGuessesForLastQuestion(), System.currentTimeMillis()); // only queued, written later
+
+            if(answerResult == QuizEngine.AnswerResult.QUIZ_FINISHED) { // end of quiz is reached, all questions have been answered
+                Log.d("AnimalQuiz", "Question transitions: " + frameDropMonitor.getFrameStats());
+                Log.d("AnimalQuiz", "Transition tasks: " + taskScheduler.getStats());
+                double score = isTimedMode ? timedScore.getPercentage() : quizEngine.getScore();
+                historyStore.recordResult(new QuizResult(quizId, System.currentTimeMillis(), quizEngine.getNumOfQuestionsInQuiz(),
+                        quizEngine.getNumOfGuesses(), score));
                 try {
-                    DialogFragment quizResults = new DialogFragment() {
-                        @NonNull
-                        @Override
-                        public Dialog onCreateDialog(@Nullable Bundle savedInstanceState) {
-                            AlertDialog.Builder builder = new AlertDialog.Builder(getActivity());
-                            builder.setTitle(R.string.result_title);
-                            builder.setMessage(getString(R.string.result_message, numOfGuesses, (1000 / (double) numOfGuesses)));
-                            // for formatted strings use getString()
-                            builder.setPositiveButton(R.string.reset_quiz_button, new DialogInterface.OnClickListener() {
-                                @Override
-                                public void onClick(DialogInterface dialog, int which) { // listener for button
-                                    resetAnimalQuiz();
-                                }
-                            });
-                            return builder.create();
-                        }
-                    };
-                    quizResults.setCancelable(false);
+                    QuizResultsDialog quizResults = isTimedMode
+                            ? QuizResultsDialog.newTimedInstance(quizEngine.getNumOfQuestionsInQuiz(), quizEngine.getNumOfGuesses(),
+                                    score, timedScore.getTotalPoints(), timedScore.getAverageLatencyNanos())
+                            : QuizResultsDialog.newInstance(quizEngine.getNumOfQuestionsInQuiz(), quizEngine.getNumOfGuesses(), score);
                     quizResults.show(getActivity().getSupportFragmentManager(), "QuizResults"); // call show() to display dialog
                     // getFragmentManager() is deprecated
                 }
@@ -134,75 +244,273 @@ public class MainFragment extends Fragment implements View.OnClickListener {
                 }
             }
             else { // quiz is not finished yet
-                handler.postDelayed(new Runnable() { // background
-                    @Override
-                    public void run() {
-                        animateQuizQuestion(true); // change question
-                    }}, 500); // 0.5 sec delay
-                }
+                frameDropMonitor.start(); // until the next question is revealed
+                transitionStartNanos = answerStartNanos;
+                prepareNextQuestion(); // done during the delay & the reveal out, so the swap afterwards has no work left
+                taskScheduler.schedule(animateOutTask, 500); // 0.5 sec delay
+            }
         }
         else { // if answer is wrong, question does not change
             imageAnimal.startAnimation(wrongAnswerAnimation);
             txtAnswer.setText(R.string.wrong_answer);
             btnSelectedGuess.setEnabled(false); // disable button that was clicked already
+            MainActivity.metrics.increment(MetricsRegistry.WRONG_ANSWERS);
+        }
+        MainActivity.metrics.stopTimer(MetricsRegistry.ANSWER, answerStartNanos);
+    }
+
+    private final QuestionCountdown.Listener timeUpListener = new QuestionCountdown.Listener() {
+        @Override
+        public void onTimeUp() {
+            txtAnswer.setText(R.string.time_up); // question still has to be answered, for no points
+        }
+    };
+
+    private final QuizTaskScheduler.Task animateOutTask = new QuizTaskScheduler.Task() { // reused for every question
+        @Override
+        protected void execute() {
+            animateQuizQuestion(true); // change question
+        }
+    };
+
+    public void onTrimMemory(int level) { // called by MainActivity
+        if (imageLoader != null) {
+            imageLoader.onTrimMemory(level); // drop cached animal images
+        }
+    }
+
+    public void setAnimalCatalog(AnimalCatalog animalCatalog, AnimalImageManifest imageManifest) { // called once the question bank is loaded
+        this.animalCatalog = animalCatalog;
+        quizEngine.setAnimalCatalog(animalCatalog);
+        imageLoader.setImageManifest(imageManifest); // pre-resized variants, null if the images are not packed
+    }
+
+    // called before startQuiz, the packs are indexed after it
+    public void setAnimalPackStore(AnimalPackStore animalPackStore) {
+        imageLoader.setAnimalPackStore(animalPackStore);
+        isIndexingPacks = true;
+    }
+
+    // an animal pack was indexed, the quiz carries on & its animals can come up if their type is selected
+    public void onAnimalCatalogExtended(AnimalCatalog extendedCatalog) {
+        animalCatalog = extendedCatalog;
+        quizEngine.extendAnimalCatalog(extendedCatalog);
+        if (savedQuiz != null) {
+            startQuiz(); // saved quiz may have been waiting for this pack's animals
+            return;
+        }
+        if (quizEngine.getNumOfQuestionsInQuiz() == 0) {
+            resetAnimalQuiz(); // only pack types are selected & there was nothing to ask about until now
+            return;
+        }
+        if (quizEngine.isQuizInProgress()) {
+            updateQuestionNumberText(); // quiz may have been topped up with the new animals
+            prefetchUpcomingImages();
         }
     }
 
-    private String getExactAnimalName(String correctAnswer) {
-        // get just the name from full path
-        return correctAnswer.substring(correctAnswer.indexOf('-') + 1).replace('_', ' ');
+    // every pack is indexed, a saved quiz still waiting for its animals cannot be continued now
+    public void onAnimalPacksScanned() {
+        isIndexingPacks = false;
+        if (savedQuiz != null) {
+            startQuiz();
+        }
     }
 
-    private void disableAllGuessButtons() { // disable each button in each linear layout iteratively
-        for(int row = 0; row < numOfGuessRows; row++) { // index based on user selection
-            LinearLayout llRow = rowsOfGuesses[row];
-//        for(LinearLayout llRow : rowsOfGuesses) {
-            // here we dont use enhanced for loop, as not all 6 buttons may be visible
-            // so check number of guesses variable, as selected by user. so only the visible rows are disabled
-            // if settings are changed midway, newly visible buttons will be enabled
-            for (int buttonIndex = 0; buttonIndex < llRow.getChildCount(); buttonIndex++) {
-                llRow.getChildAt(buttonIndex).setEnabled(false);
+    private final AnimalImageLoader.Callback imageLoadedCallback = new AnimalImageLoader.Callback() {
+        @Override // main thread
+        public void onImageLoaded(String assetPath, Drawable animalImage) {
+            if (isNextQuestionPrepared && assetPath.equals(preparedFrame.imagePath)) {
+                preparedFrame.image = animalImage; // shown when the frames are swapped
+                imageLoader.holdImage(animalImage); // must not be decoded into before that
+                return;
+            }
+            if (assetPath.equals(shownFrame.imagePath) && shownFrame.image == null) { // decode finished after the swap
+                shownFrame.image = animalImage;
+                displayQuestionImage(animalImage);
             }
+            // else question already changed, this image is stale
+        }
+    };
+
+    private void displayQuestionImage(Drawable animalImage) {
+        imageAnimal.setImageDrawable(animalImage);
+        imageLoader.onImageDisplayed(animalImage);
+        if (!MainActivity.startupTrace.isComplete(StartupTrace.FIRST_DECODE)) {
+            MainActivity.startupTrace.end(StartupTrace.FIRST_DECODE);
+            ((MainActivity) getActivity()).dumpStartupTraceIfComplete();
+        }
+        animateQuizQuestion(false); // creates animation w/o changing question -> called after changing question
+        if (questionAnimator == null) { // first question is not revealed, its countdown starts right away
+            startCountdown();
         }
     }
 
-    public void resetAnimalQuiz() {
-        AssetManager assets = getActivity().getAssets();
-        fullAnimalNamesList.clear();
-        try {
-            for (String animalType : animalTypesInQuizSet) {
-                String[] animalImagePaths = assets.list(animalType); // here, we're passing the folder names (animal types) to assets
-                    // list returns a String[]
-                // image paths set will hold the full names with ".png"
-                for (String imagePath : animalImagePaths) {
-                    fullAnimalNamesList.add(imagePath.replace(".png", ""));
-                    // names list will hold the names without ".png"
-                }
+    private void prefetchUpcomingImages() {
+        if (imageAnimal.getWidth() == 0 || imageAnimal.getHeight() == 0) {
+            // first question comes up before layout - images prefetched for the estimated size would not be found by
+            // load() once the view is measured, as the cache is keyed by target size, so they would be decoded twice
+            if (!isPrefetchWaitingForLayout) {
+                isPrefetchWaitingForLayout = true;
+                imageAnimal.addOnLayoutChangeListener(prefetchAfterLayoutListener);
             }
+            return;
+        }
+        // order of the remaining questions is already known
+        for (int questionsAhead = 1; questionsAhead <= IMAGE_PREFETCH_DEPTH; questionsAhead++) {
+            int upcomingAnimalId = quizEngine.getUpcomingAnimalId(questionsAhead);
+            if (upcomingAnimalId < 0) {
+                break; // end of quiz
+            }
+            imageLoader.prefetch(animalCatalog.getImagePath(upcomingAnimalId), getImageTargetWidth(), getImageTargetHeight());
         }
-        catch (IOException e) {
-            Log.e("AnimalQuiz", "ERROR", e);
-            e.printStackTrace();
-        }
-        numOfGuesses = 0;
-        numOfCorrectAnswers = 0;
-        animalNamesList.clear();
-
-        int counter = 1;
-        int numOfAvailableAnimals = fullAnimalNamesList.size();
-        while (counter <= NUM_OF_QUESTIONS_IN_QUIZ) { // 10 times
-            int randomIndex = secureRandomNumber.nextInt(numOfAvailableAnimals); // gets random int b/w 0..x available animals
-            String animalName = fullAnimalNamesList.get(randomIndex); // pass random num as index to available animals list, get name
-            if(!animalNamesList.contains(animalName)) { // add name to name list if not already in it
-                animalNamesList.add(animalName); // to make sure question is not duplicated / repeated
-                ++counter;
+    }
+
+    private final View.OnLayoutChangeListener prefetchAfterLayoutListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            if (right == left || bottom == top) {
+                return; // still not measured
             }
+            v.removeOnLayoutChangeListener(this); // once, later questions are prefetched as they come up
+            isPrefetchWaitingForLayout = false;
+            prefetchUpcomingImages();
+        }
+    };
+
+    private int getImageTargetWidth() {
+        if (imageAnimal.getWidth() > 0) {
+            return imageAnimal.getWidth();
+        }
+        // first question is loaded before layout, use the 360dp width from fragment_main.xml - nothing is prefetched for it
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        return Math.min(metrics.widthPixels, Math.round(360 * metrics.density));
+    }
+
+    private int getImageTargetHeight() {
+        if (imageAnimal.getHeight() > 0) {
+            return imageAnimal.getHeight();
+        }
+        return getResources().getDisplayMetrics().heightPixels / 2; // image takes the space left below the buttons
+    }
+
+    private void disableAllGuessButtons() { // only the visible buttons, hidden ones are enabled when shown again
+        for (int optionIndex = 0; optionIndex < guessButtonGrid.getNumOfButtons(); optionIndex++) {
+            guessButtonGrid.getButton(optionIndex).setEnabled(false);
+        }
+    }
+
+    // called once the question bank is loaded, continues the quiz from the saved state if there is one
+    // a saved quiz with pack animals is kept until its packs are indexed, it is tried again with every pack
+    public void startQuiz() {
+        if (animalCatalog == null) {
+            return;
+        }
+        QuizEngine.Snapshot snapshot = savedQuiz;
+        if (snapshot != null && quizEngine.restoreSnapshot(snapshot)) {
+            savedQuiz = null;
+            showNextQuizQuestion(); // same animal as before, options are sampled again
+            return;
+        }
+        if (snapshot != null && isIndexingPacks) {
+            return; // some of its animals may be in a pack that is not indexed yet
+        }
+        resetAnimalQuiz(); // nothing saved, or the saved animals are no longer in the quiz - drops the snapshot
+    }
+
+    public void resetAnimalQuiz() {
+        if (animalCatalog == null) {
+            return; // question bank still loading, quiz is reset once it is ready
         }
+        long resetStartNanos = MainActivity.metrics.startTimer();
+        taskScheduler.cancelAll(); // question change of the previous quiz, if still pending
+        discardPreparedQuestion();
+        frameDropMonitor.stop();
+        frameDropMonitor.getFrameStats().reset(); // frame timing is reported per quiz
+        taskScheduler.getStats().reset();
+        questionCountdown.cancel();
+        timedScore.reset();
+        savedQuiz = null;
+        if (!quizEngine.reset()) {
+            return; // no animals to ask about
+        }
+        quizId = System.currentTimeMillis();
+        transitionStartNanos = MetricsRegistry.NOT_TIMED; // first question has no transition
         showNextQuizQuestion();
+        MainActivity.metrics.stopTimer(MetricsRegistry.RESET_QUIZ, resetStartNanos);
+    }
+
+    // past results, newest first, one page is read at a time from the history store
+    public void showScoreHistory() {
+        showScoreHistoryPage(0);
+    }
+
+    private void showScoreHistoryPage(final int offset) {
+        historyStore.readResults(offset, SCORE_HISTORY_PAGE_SIZE, new QuizHistoryStore.ResultsCallback() {
+            @Override
+            public void onResultsRead(final List<QuizResult> results, final int totalNumOfResults) { // store thread
+                FragmentActivity activity = getActivity();
+                if (activity == null) {
+                    return;
+                }
+                activity.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!isAdded()) {
+                            return; // fragment went away while reading
+                        }
+                        displayScoreHistoryPage(offset, results, totalNumOfResults);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(IOException e) { // store thread
+                Log.e("AnimalQuiz", "ERROR", e);
+                FragmentActivity activity = getActivity();
+                if (activity == null) {
+                    return;
+                }
+                activity.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isAdded()) {
+                            Toast.makeText(getActivity(), R.string.score_history_error, Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void displayScoreHistoryPage(final int offset, List<QuizResult> results, int totalNumOfResults) {
+        StringBuilder message = new StringBuilder();
+        if (results.isEmpty()) {
+            message.append(getString(R.string.score_history_empty));
+        }
+        DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+        for (QuizResult result : results) {
+            message.append(getString(R.string.score_history_entry, dateFormat.format(new Date(result.getFinishedAtMillis())),
+                    result.getNumOfQuestions(), result.getNumOfGuesses(), result.getScore())).append('\n');
+        }
+        AlertDialog.Builder builder = new AlertDialog.Builder(getActivity())
+                .setTitle(R.string.score_history_title)
+                .setMessage(message)
+                .setPositiveButton(android.R.string.ok, null);
+        final int nextOffset = offset + results.size();
+        if (nextOffset < totalNumOfResults) { // older results are only read when asked for
+            builder.setNeutralButton(R.string.score_history_more, new DialogInterface.OnClickListener() {
+                @Override
+                public void onClick(DialogInterface dialog, int which) {
+                    showScoreHistoryPage(nextOffset);
+                }
+            });
+        }
+        builder.show();
     }
 
     private void animateQuizQuestion(boolean animateOut) {
-        if(numOfCorrectAnswers == 0) { // if answer is wrong - put wrong answer anim, else animate to next question
+        if(quizEngine.getNumOfCorrectAnswers() == 0) { // if answer is wrong - put wrong answer anim, else animate to next question
             // or if it is first question
             return;
         }
@@ -217,69 +525,157 @@ public class MainFragment extends Fragment implements View.OnClickListener {
         if(animateOut) { // if passed true
             animator = ViewAnimationUtils.createCircularReveal(quizLinearLayout, xBottomRight, yBottomRight, radius, 0);
             // pass the view, centerX, centerY, start radius, end radius
-            animator.addListener(new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {}
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    showNextQuizQuestion();
-                }
-                @Override
-                public void onAnimationCancel(Animator animation) {}
-                @Override
-                public void onAnimationRepeat(Animator animation) {}
-            });
+            animator.addListener(revealOutListener);
         }
         else { // passed false param
             animator = ViewAnimationUtils.createCircularReveal(quizLinearLayout, xTopLeft, yTopLeft, 0, radius);
+            animator.addListener(revealInListener);
         }
         animator.setDuration(500); // ms
+        questionAnimator = animator;
         animator.start();
     }
 
-    private void showNextQuizQuestion() { // show new question, buttons & image
-        String nextAnimalName = animalNamesList.remove(0); // remove first one in list of unique names from secure random
-        correctAnswer = nextAnimalName; // holds path without ".png"
+    // listeners are created once & shared by every reveal, onDestroyView detaches them from a running one
+    private final AnimatorListenerAdapter revealOutListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            questionAnimator = null;
+            if (isNextQuestionPrepared) { // quiz may have been reset in the meantime
+                showPreparedQuestion(); // only swaps in what was built during the delay
+            }
+        }
+    };
+
+    private final AnimatorListenerAdapter revealInListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            questionAnimator = null;
+            frameDropMonitor.stop(); // transition is over
+            MainActivity.metrics.stopTimer(MetricsRegistry.QUESTION_TRANSITION, transitionStartNanos);
+            transitionStartNanos = MetricsRegistry.NOT_TIMED;
+            startCountdown();
+        }
+    };
+
+    // timed mode - the question is fully on screen, its buttons are enabled & the clock starts only now
+    private void startCountdown() {
+        if (!isTimedMode || !quizEngine.isQuestionInProgress() || questionCountdown.isStarted()) {
+            return;
+        }
+        renderGuessButtons();
+        questionCountdown.start();
+    }
+
+    private void showNextQuizQuestion() { // show new question right away, buttons & image
+        prepareNextQuestion();
+        showPreparedQuestion();
+    }
+
+    // builds the next question into the back frame without touching any views
+    private void prepareNextQuestion() {
+        long prepareStartNanos = MainActivity.metrics.startTimer();
+        discardPreparedQuestion();
+        quizEngine.startQuestion(); // wrong answers are sampled, correct one is put on a random button
+        isNextQuestionPrepared = true;
+        preparedFrame.animalId = quizEngine.getCurrentAnimalId();
+        preparedFrame.questionNumberText = getString(R.string.question_number, quizEngine.getQuestionNumber(), quizEngine.getNumOfQuestionsInQuiz());
+        fillOptions(preparedFrame);
+
+        // image for correct answer is decoded in the background, downsampled to the size of the image view
+        preparedFrame.imagePath = animalCatalog.getImagePath(preparedFrame.animalId);
+        MainActivity.startupTrace.begin(StartupTrace.FIRST_DECODE); // only the first question is traced
+        int prefetchHitsBefore = imageLoader.getPrefetchHits();
+        imageLoader.load(preparedFrame.imagePath, getImageTargetWidth(), getImageTargetHeight(), imageLoadedCallback);
+            // prefetched images call back right away
+        if (imageLoader.getPrefetchHits() == prefetchHitsBefore) {
+            MainActivity.metrics.increment(MetricsRegistry.IMAGES_WAITED_FOR);
+        }
+        prefetchUpcomingImages(); // decode next question(s) while this one is being answered
+        MainActivity.metrics.stopTimer(MetricsRegistry.PREPARE_QUESTION, prepareStartNanos);
+    }
+
+    private void fillOptions(QuestionFrame frame) { // option names of the engine's current question
+        frame.numOfOptions = quizEngine.getNumOfOptions();
+        for (int optionIndex = 0; optionIndex < frame.numOfOptions; optionIndex++) {
+            frame.optionNames[optionIndex] = animalCatalog.getDisplayName(quizEngine.getOptionId(optionIndex)); // names are precomputed
+        }
+    }
+
+    private void discardPreparedQuestion() {
+        if (preparedFrame.image != null) {
+            imageLoader.releaseImage(preparedFrame.image);
+        }
+        preparedFrame.image = null;
+        preparedFrame.imagePath = null;
+        isNextQuestionPrepared = false;
+    }
+
+    // swaps the prepared frame in, only assigns what is already built
+    private void showPreparedQuestion() {
+        long showStartNanos = MainActivity.metrics.startTimer();
+        QuestionFrame previousFrame = shownFrame;
+        shownFrame = preparedFrame;
+        preparedFrame = previousFrame;
+        preparedFrame.image = null; // replaced on screen below, loader knows when its bitmap can be reused
+        preparedFrame.imagePath = null;
+        isNextQuestionPrepared = false;
+
         txtAnswer.setText("");
-        txtQuestionNumber.setText(getString(R.string.question_number, numOfCorrectAnswers + 1, NUM_OF_QUESTIONS_IN_QUIZ));
-            // correct answers + 1 -> current question num
-
-        String animalType = nextAnimalName.substring(0, nextAnimalName.indexOf('-'));
-            // extract animal type of the current question from animal name, excl '-'
-        // used to pass name to asset manager & access the image for correct answer
-        AssetManager assetManager = getActivity().getAssets();
-        try (InputStream stream = assetManager.open(animalType + "/" + nextAnimalName + ".png")) // passing path
-        { // stream open file at path -> assets/animal_type/full_name_path.png
-            Drawable animalImage = Drawable.createFromStream(stream, nextAnimalName); // input stream & string source name
-            imageAnimal.setImageDrawable(animalImage);
-            animateQuizQuestion(false); // creates animation w/o changing question -> called after changing question
-        }
-        catch (IOException e) {
-            Log.e("AnimalQuiz", "ERROR", e);
-            e.printStackTrace();
-        }
-        Collections.shuffle(fullAnimalNamesList); // unordered & unpredictable
-
-        int correctAnimalNameIndex = fullAnimalNamesList.indexOf(correctAnswer); // index of answer for current question
-        String correctAnswerName = fullAnimalNamesList.remove(correctAnimalNameIndex);
-        fullAnimalNamesList.add(correctAnswerName); // answer for current que is added to the end of array
-            // this is done so that incorrect options can be specified as guesses - list has been shuffled
-
-        for(int row = 0; row < numOfGuessRows; row++) { // num of guess rows selected
-            for (int column = 0; column < rowsOfGuesses[row].getChildCount(); column++) {
-                // iterate over all visible buttons
-                Button btnGuess = (Button) rowsOfGuesses[row].getChildAt(column);
+        txtQuestionNumber.setText(shownFrame.questionNumberText);
+        renderGuessButtons();
+        if (isTimedMode) {
+            disableAllGuessButtons(); // until the image is up & the countdown starts, a slow decode never costs the player time
+        }
+        if (shownFrame.image != null) {
+            displayQuestionImage(shownFrame.image);
+            imageLoader.releaseImage(shownFrame.image); // held while prepared, now held as the displayed image
+        }
+        // else decode is still running, image callback shows it
+        MainActivity.metrics.stopTimer(MetricsRegistry.SHOW_QUESTION, showStartNanos);
+    }
+
+    private void renderGuessButtons() { // options of the question on screen onto the visible buttons
+        for (int optionIndex = 0; optionIndex < guessButtonGrid.getNumOfButtons(); optionIndex++) { // iterate over all visible buttons
+            Button btnGuess = guessButtonGrid.getButton(optionIndex);
+            if (optionIndex < shownFrame.numOfOptions) {
                 btnGuess.setEnabled(true);
-                String animalName = fullAnimalNamesList.get((row * 2) + column); // pattern - after list has been shuffled
-                btnGuess.setText(getExactAnimalName(animalName)); // set all visible buttons as random names from list
+                btnGuess.setText(shownFrame.optionNames[optionIndex]);
+            }
+            else { // fewer animals in the selected types than buttons
+                btnGuess.setEnabled(false);
+                btnGuess.setText("");
+            }
+        }
+    }
+
+    // after a settings change, options are re-picked for the question on screen, or for the prepared one if the answer is being revealed
+    private void refreshQuestionOptions() {
+        if (!quizEngine.refreshOptions()) {
+            disableAllGuessButtons(); // answered already, newly shown buttons must not be clickable until the next question
+            return;
+        }
+        if (isNextQuestionPrepared) {
+            fillOptions(preparedFrame);
+            disableAllGuessButtons(); // question on screen is answered, new options show up with the next one
+        }
+        else {
+            fillOptions(shownFrame);
+            renderGuessButtons();
+            if (isTimedMode && !questionCountdown.isStarted()) {
+                disableAllGuessButtons(); // image not up yet, enabled when the countdown starts
             }
         }
-        // set a random button as correct answer
-        int row = secureRandomNumber.nextInt(numOfGuessRows); // random row index from visible rows
-        int column = secureRandomNumber.nextInt(2); // random from 0 and 1 column (not incl 2)
-        LinearLayout randomRow = rowsOfGuesses[row]; // get row
-        String correctAnimalName = getExactAnimalName(correctAnswer);
-        ((Button) randomRow.getChildAt(column)).setText(correctAnimalName);
+    }
+
+    private void updateQuestionNumberText() { // after the quiz length changed
+        int questionNumber = quizEngine.getQuestionNumber();
+        if (isNextQuestionPrepared) {
+            preparedFrame.questionNumberText = getString(R.string.question_number, questionNumber, quizEngine.getNumOfQuestionsInQuiz());
+            --questionNumber; // engine is already on the prepared question
+        }
+        shownFrame.questionNumberText = getString(R.string.question_number, questionNumber, quizEngine.getNumOfQuestionsInQuiz());
+        txtQuestionNumber.setText(shownFrame.questionNumberText);
     }
 
     // =============================== SHARED PREFERENCES LOGIC ============================================
@@ -287,95 +683,110 @@ public class MainFragment extends Fragment implements View.OnClickListener {
     public void changeQuizGuessRows(SharedPreferences sharedPreferences) {
         final String NUM_OF_GUESS_OPTIONS = sharedPreferences.getString(MainActivity.NUM_OF_GUESSES_KEY, null); // def val already specified
             // try above code with getInt() ??
-        numOfGuessRows = Integer.parseInt(NUM_OF_GUESS_OPTIONS) / 2;
-        for(LinearLayout row : rowsOfGuesses) { // make all GONE
-            row.setVisibility(View.GONE);
-        }
-        for(int row = 0; row < numOfGuessRows; row++) { // make only the selected rows VISIBLE
-            rowsOfGuesses[row].setVisibility(View.VISIBLE);
-        }
+        int numOfGuessOptions = Integer.parseInt(NUM_OF_GUESS_OPTIONS);
+        quizEngine.setNumOfOptions(numOfGuessOptions);
+        guessButtonGrid.setNumOfButtons(numOfGuessOptions); // pooled buttons are re-attached, only if the size changed
+    }
+
+    public void changeQuizLength(SharedPreferences sharedPreferences) {
+        quizEngine.setNumOfQuestions(Integer.parseInt(sharedPreferences.getString(MainActivity.NUM_OF_QUESTIONS_KEY, null)));
     }
 
     public void changeAnimalTypesInQuiz(SharedPreferences sharedPreferences) {
         // apply option selected by user, put in set, both are selected by default
-        animalTypesInQuizSet = sharedPreferences.getStringSet(MainActivity.ANIMAL_TYPES_KEY, null); // set of String values
+        quizEngine.setAnimalTypes(sharedPreferences.getStringSet(MainActivity.ANIMAL_TYPES_KEY, null)); // set of String values
+    }
+
+    public void changeTimedMode(SharedPreferences sharedPreferences) {
+        isTimedMode = sharedPreferences.getBoolean(MainActivity.TIMED_MODE_KEY, false);
+        countdownBar.setVisibility(isTimedMode ? View.VISIBLE : View.GONE);
+        changeSecondsPerQuestion(sharedPreferences);
+    }
+
+    public void changeSecondsPerQuestion(SharedPreferences sharedPreferences) {
+        int secondsPerQuestion = Integer.parseInt(sharedPreferences.getString(MainActivity.SECONDS_PER_QUESTION_KEY, "10"));
+        questionCountdown.setTimeLimitNanos(TimeUnit.SECONDS.toNanos(secondsPerQuestion));
+    }
+
+    // settings changed mid quiz - only what changed is redone, progress is kept
+
+    public void applyTimedModeChange(SharedPreferences sharedPreferences) {
+        changeTimedMode(sharedPreferences);
+        resetAnimalQuiz(); // points & percentages can't be mixed within one quiz, the only change that restarts it
+    }
+
+    public void applyGuessRowsChange(SharedPreferences sharedPreferences) {
+        changeQuizGuessRows(sharedPreferences);
+        refreshQuestionOptions(); // new number of options, image stays
+    }
+
+    public void applyQuizLengthChange(SharedPreferences sharedPreferences) {
+        if (!quizEngine.isQuizInProgress()) {
+            changeQuizLength(sharedPreferences); // used by the next quiz
+            return;
+        }
+        // questions are added or dropped at the end, answered ones & the one on screen stay
+        quizEngine.changeNumOfQuestions(Integer.parseInt(sharedPreferences.getString(MainActivity.NUM_OF_QUESTIONS_KEY, null)));
+        updateQuestionNumberText();
+        prefetchUpcomingImages();
+    }
+
+    public void applyAnimalTypesChange(SharedPreferences sharedPreferences) {
+        if (!quizEngine.isQuizInProgress()) { // not started or finished, nothing to keep
+            changeAnimalTypesInQuiz(sharedPreferences);
+            resetAnimalQuiz();
+            return;
+        }
+        // wrong answer pool is patched & upcoming questions of removed types are replaced
+        quizEngine.changeAnimalTypes(sharedPreferences.getStringSet(MainActivity.ANIMAL_TYPES_KEY, null));
+        if (!quizEngine.isQuizInProgress()) { // no questions left with the new types
+            resetAnimalQuiz();
+            return;
+        }
+        refreshQuestionOptions();
+        updateQuestionNumberText();
+        prefetchUpcomingImages(); // next question may have changed
     }
 
     public void changeQuizBackgroundColor(SharedPreferences sharedPreferences) {
         String backgroundColor = sharedPreferences.getString(MainActivity.BG_COLOR_KEY, null); // change default to white
-        switch (backgroundColor) {
-            case "White":
-                commonMethodForBackgroundColor(R.color.white);
-                break;
-            case "Black":
-                // for black - change theme
-                quizLinearLayout.setBackgroundColor(getResources().getColor(R.color.black, null));
-                for(LinearLayout row : rowsOfGuesses) {
-                    for (int column = 0; column < row.getChildCount(); column++) {
-                        Button button = (Button) row.getChildAt(column);
-                        button.setBackgroundColor(getResources().getColor(R.color.quiz_grey, null));
-                        button.setTextColor(getResources().getColor(R.color.black, null));
-                    }
-                }
-                txtAnswer.setTextColor(getResources().getColor(R.color.white, null));
-                txtQuestionNumber.setTextColor(getResources().getColor(R.color.white, null));
-                break;
-            case "Green":
-                commonMethodForBackgroundColor(R.color.quiz_green);
-                break;
-            case "Red":
-                commonMethodForBackgroundColor(R.color.quiz_red);
-                break;
-            case "Blue":
-                commonMethodForBackgroundColor(R.color.quiz_blue);
-                break;
-            case "Yellow":
-                commonMethodForBackgroundColor(R.color.quiz_yellow);
-                break;
-        }
+        applyThemePalette(ThemePalette.forName(getActivity(), backgroundColor));
     }
 
     public void changeQuizFont(SharedPreferences sharedPreferences) {
-        String fontSelected = sharedPreferences.getString(MainActivity.FONT_KEY, null);
-        switch (fontSelected) {
-            case "Hold On.ttf":
-                commonMethodForFont(MainActivity.holdOn);
-                break;
-            case "Qabil Free Trial.ttf":
-                commonMethodForFont(MainActivity.qabilFreeTrial);
-                break;
-            case "Murberry.ttf":
-                commonMethodForFont(MainActivity.murberry);
-                break;
-        }
-    }
-
-    private void commonMethodForBackgroundColor(@ColorRes int backgroundColorID) {
-        // same for all other colors
-        quizLinearLayout.setBackgroundColor(getResources().getColor(backgroundColorID, null));
-        for (LinearLayout row : rowsOfGuesses) {
-            for (int column = 0; column < row.getChildCount(); column++) {
-                Button button = (Button) row.getChildAt(column);
-                button.setBackgroundColor(getResources().getColor(R.color.quiz_dark_grey, null));
-                button.setTextColor(getResources().getColor(R.color.white, null));
-            }
+        String fontSelected = sharedPreferences.getString(MainActivity.FONT_KEY, null); // font file name, e.g. "Hold On.ttf"
+        MainActivity.startupTrace.begin(StartupTrace.FONTS); // only the font loaded at startup is traced
+        fontRegistry.load(fontSelected, fontLoadedCallback); // only this font is loaded, others when picked
+    }
+
+    private final FontRegistry.Callback fontLoadedCallback = new FontRegistry.Callback() {
+        @Override
+        public void onFontLoaded(Typeface typeface) {
+            MainActivity.startupTrace.end(StartupTrace.FONTS);
+            commonMethodForFont(typeface);
         }
-        txtAnswer.setTextColor(getResources().getColor(R.color.black, null));
-        txtQuestionNumber.setTextColor(getResources().getColor(R.color.black, null));
+    };
+
+    private void applyThemePalette(ThemePalette palette) { // colours are already resolved, single pass over the views
+        if (palette == themePalette) {
+            return; // already applied, e.g. at startup
+        }
+        themePalette = palette;
+        quizLinearLayout.setBackgroundColor(palette.getBackgroundColor());
+        for (int optionIndex = 0; optionIndex < GuessButtonGrid.MAX_OPTIONS; optionIndex++) { // pooled buttons too
+            Button button = guessButtonGrid.getButton(optionIndex);
+            button.setBackgroundColor(palette.getButtonColor());
+            button.setTextColor(palette.getButtonTextColor());
+        }
+        txtAnswer.setTextColor(palette.getTextColor());
+        txtQuestionNumber.setTextColor(palette.getTextColor());
     }
 
     private void commonMethodForFont(Typeface fontName) {
-        for(LinearLayout row : rowsOfGuesses) { // set for all buttons
-            for (int column = 0; column < row.getChildCount(); column++) {
-                ((Button) row.getChildAt(column)).setTypeface(fontName);
-            }
+        for (int optionIndex = 0; optionIndex < GuessButtonGrid.MAX_OPTIONS; optionIndex++) { // set for all buttons, pooled ones too
+            guessButtonGrid.getButton(optionIndex).setTypeface(fontName);
         }
         txtQuestionNumber.setTypeface(fontName); // check how these look-------
         txtAnswer.setTypeface(fontName);
     }
-
-
-//    public void onViewCreated(@NonNull View view, Bundle savedInstanceState) {
-//        super.onViewCreated(view, savedInstanceState);
-//    }
 }
\ No newline at end of file
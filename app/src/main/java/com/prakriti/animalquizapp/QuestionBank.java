@@ -0,0 +1,160 @@
+package com.prakriti.animalquizapp;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.AnimalImageManifest;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// reads the index of the animal images once per process, in the background - the memory mapped bundle if there is one,
+// else the text manifest, & asset folders are only listed if there is neither
+// after that the quiz only asks the catalog for ids, changing animal types never touches assets again
+// process wide, so an activity recreated on rotation gets the catalog right away instead of scanning again
+public class QuestionBank {
+
+    public interface Listener { // called on the main thread
+        void onQuestionBankLoaded(AnimalCatalog animalCatalog, AnimalImageManifest imageManifest); // manifest is null without a packed image set
+    }
+
+    private static QuestionBank instance; // main thread only
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ArrayList<Listener> waitingListeners = new ArrayList<>(); // load() called while the scan is running
+    private boolean isScanStarted = false;
+    private AnimalCatalog animalCatalog; // null until the scan is done, main thread only
+    private AnimalImageManifest imageManifest;
+
+    private QuestionBank() {}
+
+    public static QuestionBank getInstance() { // main thread only
+        if (instance == null) {
+            instance = new QuestionBank();
+        }
+        return instance;
+    }
+
+    // call from the main thread, listener runs right away if the catalog was already loaded by an earlier activity
+    public void load(Context context, Listener listener) {
+        if (animalCatalog != null) {
+            listener.onQuestionBankLoaded(animalCatalog, imageManifest);
+            return;
+        }
+        waitingListeners.add(listener);
+        if (isScanStarted) {
+            return; // activity recreated while the first scan runs, it gets the same result
+        }
+        isScanStarted = true;
+        final AssetManager assets = context.getApplicationContext().getAssets(); // kept by the scan, must not hold the activity
+        final String[] animalTypes = context.getResources().getStringArray(R.array.animal_types_entry_values);
+            // folder names in assets, same values the settings use
+        ExecutorService scanExecutor = Executors.newSingleThreadExecutor();
+        scanExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                AnimalImageManifest bundleIndex = mapBundle(assets);
+                final AnimalImageManifest scannedManifest = bundleIndex != null ? bundleIndex : readManifest(assets);
+                final AnimalCatalog scannedCatalog = scannedManifest != null ? buildFromManifest(scannedManifest, animalTypes)
+                        : scanAssets(assets, animalTypes);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onScanFinished(scannedCatalog, scannedManifest);
+                    }
+                });
+            }
+        });
+        scanExecutor.shutdown(); // single scan, thread ends once it is done
+    }
+
+    // activity going away before the scan finished, its listener must not be called or kept
+    public void removeListener(Listener listener) {
+        waitingListeners.remove(listener);
+    }
+
+    private void onScanFinished(AnimalCatalog scannedCatalog, AnimalImageManifest scannedManifest) { // main thread
+        animalCatalog = scannedCatalog;
+        imageManifest = scannedManifest;
+        List<Listener> listeners = new ArrayList<>(waitingListeners);
+        waitingListeners.clear();
+        for (Listener listener : listeners) {
+            listener.onQuestionBankLoaded(scannedCatalog, scannedManifest);
+        }
+    }
+
+    public boolean isLoaded() {
+        return animalCatalog != null;
+    }
+
+    public AnimalCatalog getAnimalCatalog() {
+        return animalCatalog;
+    }
+
+    // one open & one header read for the whole catalog, the mapping stays valid after the file is closed
+    private static AnimalImageManifest mapBundle(AssetManager assets) {
+        try (AssetFileDescriptor bundleFd = assets.openFd(AnimalImageManifest.BUNDLE_FILE_NAME); // stored uncompressed, see animal-images.gradle
+             FileInputStream bundleStream = bundleFd.createInputStream();
+             FileChannel bundleChannel = bundleStream.getChannel()) {
+            MappedByteBuffer bundle = bundleChannel.map(FileChannel.MapMode.READ_ONLY, bundleFd.getStartOffset(), bundleFd.getDeclaredLength());
+                // bundle is a region of the APK, mapped from its start offset
+            return AnimalImageManifest.readBundle(bundle);
+        }
+        catch (FileNotFoundException e) {
+            return null; // images are not bundled
+        }
+        catch (IOException e) {
+            Log.e("AnimalQuiz", "ERROR", e);
+            return null;
+        }
+    }
+
+    private static AnimalImageManifest readManifest(AssetManager assets) {
+        try (Reader reader = new InputStreamReader(assets.open(AnimalImageManifest.FILE_NAME), StandardCharsets.UTF_8)) {
+            return AnimalImageManifest.parse(reader);
+        }
+        catch (FileNotFoundException e) {
+            return null; // images are not packed, e.g. plain folders in assets
+        }
+        catch (IOException e) {
+            Log.e("AnimalQuiz", "ERROR", e);
+            return null;
+        }
+    }
+
+    private static AnimalCatalog buildFromManifest(AnimalImageManifest imageManifest, String[] animalTypes) {
+        AnimalCatalog.Builder builder = new AnimalCatalog.Builder();
+        for (String animalType : animalTypes) {
+            builder.addAnimalType(animalType, imageManifest.getFileNames(animalType)); // original names, variants are picked when loading
+        }
+        return builder.build();
+    }
+
+    private static AnimalCatalog scanAssets(AssetManager assets, String[] animalTypes) {
+        AnimalCatalog.Builder builder = new AnimalCatalog.Builder();
+        for (String animalType : animalTypes) {
+            try {
+                builder.addAnimalType(animalType, assets.list(animalType)); // list returns the file names in the folder
+            }
+            catch (IOException e) {
+                Log.e("AnimalQuiz", "ERROR", e);
+            }
+        }
+        return builder.build();
+    }
+}
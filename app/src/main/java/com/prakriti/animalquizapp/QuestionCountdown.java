@@ -0,0 +1,105 @@
+package com.prakriti.animalquizapp;
+
+import android.view.Choreographer;
+import android.widget.ProgressBar;
+
+import com.prakriti.animalquizapp.core.QuestionTimer;
+
+// countdown bar of timed mode, redrawn from the display's frame callback instead of repeated Handler posts
+// every frame works out the time left from its vsync timestamp, so a late frame catches up instead of the bar drifting
+// main thread only
+class QuestionCountdown implements Choreographer.FrameCallback {
+
+    interface Listener {
+        void onTimeUp(); // once per question, the timer keeps running until the answer
+    }
+
+    private static final int PROGRESS_MAX = 1000; // steps of the bar, finer than its width in pixels
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final QuestionTimer timer;
+    private final ProgressBar countdownBar;
+    private final Listener listener;
+    private boolean isFrameCallbackPosted = false;
+    private boolean isTimeUp = false;
+
+    QuestionCountdown(ProgressBar countdownBar, long timeLimitNanos, Listener listener) {
+        this.countdownBar = countdownBar;
+        this.listener = listener;
+        timer = new QuestionTimer(timeLimitNanos);
+        countdownBar.setMax(PROGRESS_MAX);
+        countdownBar.setProgress(PROGRESS_MAX);
+    }
+
+    long getTimeLimitNanos() {
+        return timer.getTimeLimitNanos();
+    }
+
+    void setTimeLimitNanos(long timeLimitNanos) {
+        timer.setTimeLimitNanos(timeLimitNanos);
+    }
+
+    boolean isStarted() {
+        return timer.isStarted();
+    }
+
+    void start() {
+        timer.start(System.nanoTime());
+        isTimeUp = false;
+        countdownBar.setProgress(PROGRESS_MAX);
+        postFrameCallback();
+    }
+
+    // answeredAtNanos -> System.nanoTime() of the answer, returns the time on the clock since start() without the paused time
+    long stop(long answeredAtNanos) {
+        long latencyNanos = timer.stop(answeredAtNanos);
+        removeFrameCallback(); // bar stays where it stopped until the next question
+        return latencyNanos;
+    }
+
+    void cancel() { // quiz reset or view going away, nothing is scored
+        timer.stop(System.nanoTime());
+        removeFrameCallback();
+        countdownBar.setProgress(PROGRESS_MAX);
+    }
+
+    void pause() {
+        timer.pause(System.nanoTime());
+        removeFrameCallback();
+    }
+
+    void resume() {
+        timer.resume(System.nanoTime());
+        if (timer.isRunning() && !isTimeUp) {
+            postFrameCallback();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) { // frame time is on the System.nanoTime() clock
+        isFrameCallbackPosted = false;
+        if (!timer.isRunning()) {
+            return;
+        }
+        long remainingNanos = timer.getRemainingNanos(frameTimeNanos);
+        countdownBar.setProgress((int) (PROGRESS_MAX * remainingNanos / timer.getTimeLimitNanos()));
+        if (remainingNanos == 0) {
+            isTimeUp = true; // no more frames needed, the bar is empty
+            listener.onTimeUp();
+            return;
+        }
+        postFrameCallback();
+    }
+
+    private void postFrameCallback() {
+        if (!isFrameCallbackPosted) {
+            choreographer.postFrameCallback(this);
+            isFrameCallbackPosted = true;
+        }
+    }
+
+    private void removeFrameCallback() {
+        choreographer.removeFrameCallback(this);
+        isFrameCallbackPosted = false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.prakriti.animalquizapp;
+
+import android.graphics.drawable.Drawable;
+
+// everything the screen shows for one question, filled in before the question is shown
+// MainFragment keeps two - the question on screen & the next one, prepared while the answer is revealed - & swaps them
+class QuestionFrame {
+
+    int animalId = -1; // correct answer
+    String imagePath;
+    Drawable image; // null until decoded
+    String questionNumberText;
+    final String[] optionNames = new String[GuessButtonGrid.MAX_OPTIONS]; // text for each guess button
+    int numOfOptions;
+}
@@ -0,0 +1,74 @@
+package com.prakriti.animalquizapp;
+
+import android.app.AlertDialog;
+import android.app.Dialog;
+import android.content.DialogInterface;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.DialogFragment;
+
+import java.util.concurrent.TimeUnit;
+
+// score at the end of a quiz, its numbers are passed as arguments instead of being read from MainFragment
+// public static & argument based, so the system can recreate it after rotation without holding on to the old fragment
+public class QuizResultsDialog extends DialogFragment {
+
+    private static final String ARG_NUM_OF_QUESTIONS = "numOfQuestions";
+    private static final String ARG_NUM_OF_GUESSES = "numOfGuesses";
+    private static final String ARG_SCORE = "score";
+    private static final String ARG_TIMED_POINTS = "timedPoints"; // only in timed mode
+    private static final String ARG_AVERAGE_LATENCY_NANOS = "averageLatencyNanos";
+
+    public QuizResultsDialog() {} // needed for recreating it
+
+    static QuizResultsDialog newInstance(int numOfQuestions, int numOfGuesses, double score) {
+        Bundle args = new Bundle();
+        args.putInt(ARG_NUM_OF_QUESTIONS, numOfQuestions);
+        args.putInt(ARG_NUM_OF_GUESSES, numOfGuesses);
+        args.putDouble(ARG_SCORE, score);
+        QuizResultsDialog quizResults = new QuizResultsDialog();
+        quizResults.setArguments(args);
+        quizResults.setCancelable(false);
+        return quizResults;
+    }
+
+    // score -> share of the points possible, shown along with the points & the average answer time
+    static QuizResultsDialog newTimedInstance(int numOfQuestions, int numOfGuesses, double score, int points, long averageLatencyNanos) {
+        QuizResultsDialog quizResults = newInstance(numOfQuestions, numOfGuesses, score);
+        quizResults.requireArguments().putInt(ARG_TIMED_POINTS, points);
+        quizResults.requireArguments().putLong(ARG_AVERAGE_LATENCY_NANOS, averageLatencyNanos);
+        return quizResults;
+    }
+
+    @NonNull
+    @Override
+    public Dialog onCreateDialog(@Nullable Bundle savedInstanceState) {
+        Bundle args = requireArguments();
+        AlertDialog.Builder builder = new AlertDialog.Builder(getActivity());
+        builder.setTitle(R.string.result_title);
+        if (args.containsKey(ARG_TIMED_POINTS)) {
+            double averageSeconds = args.getLong(ARG_AVERAGE_LATENCY_NANOS) / (double) TimeUnit.SECONDS.toNanos(1);
+            builder.setMessage(getString(R.string.result_message_timed, args.getInt(ARG_NUM_OF_QUESTIONS),
+                    args.getInt(ARG_NUM_OF_GUESSES), averageSeconds, args.getInt(ARG_TIMED_POINTS), args.getDouble(ARG_SCORE)));
+        }
+        else {
+            builder.setMessage(getString(R.string.result_message, args.getInt(ARG_NUM_OF_QUESTIONS),
+                    args.getInt(ARG_NUM_OF_GUESSES), args.getDouble(ARG_SCORE)));
+        }
+        // for formatted strings use getString()
+        builder.setPositiveButton(R.string.reset_quiz_button, new DialogInterface.OnClickListener() {
+            @Override
+            public void onClick(DialogInterface dialog, int which) { // listener for button
+                // quiz fragment of the current activity, not the one that showed the dialog before a rotation
+                MainFragment mainQuizFragment = (MainFragment) requireActivity().getSupportFragmentManager()
+                        .findFragmentById(R.id.animalQuizFragment);
+                if (mainQuizFragment != null) {
+                    mainQuizFragment.resetAnimalQuiz();
+                }
+            }
+        });
+        return builder.create();
+    }
+}
@@ -0,0 +1,102 @@
+package com.prakriti.animalquizapp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.prakriti.animalquizapp.core.TaskQueueStats;
+
+import java.util.ArrayList;
+
+// delayed work of the quiz screen, e.g. the pause before the next question, bound to the fragment's view lifecycle
+// everything pending is cancelled when the view is destroyed, so no task runs against a dead view or keeps it alive
+// tasks are created once & scheduled again for every question, nothing is allocated per post
+// main thread only
+class QuizTaskScheduler implements LifecycleEventObserver {
+
+    // reusable unit of delayed work, a task is at most once in the queue - scheduling it again moves it
+    abstract static class Task implements Runnable {
+
+        private QuizTaskScheduler scheduler; // set while pending
+        private long dueAtNanos;
+
+        protected abstract void execute();
+
+        @Override
+        public final void run() {
+            if (scheduler == null) {
+                return; // cancelled after the handler already picked it
+            }
+            scheduler.onTaskRun(this);
+            execute();
+        }
+
+        boolean isPending() {
+            return scheduler != null;
+        }
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper()); // explicit looper, the implicit one is deprecated
+    private final ArrayList<Task> pendingTasks = new ArrayList<>(4); // a few transition tasks at most
+    private final TaskQueueStats stats = new TaskQueueStats();
+    private Lifecycle lifecycle;
+
+    // tasks are cancelled when the owner is destroyed, use the fragment's view lifecycle owner
+    void bindTo(LifecycleOwner owner) {
+        lifecycle = owner.getLifecycle();
+        lifecycle.addObserver(this);
+    }
+
+    void schedule(Task task, long delayMillis) {
+        if (lifecycle == null || lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            return; // not bound, or already destroyed
+        }
+        cancel(task); // moved, not queued twice
+        task.scheduler = this;
+        task.dueAtNanos = System.nanoTime() + delayMillis * 1_000_000L;
+        pendingTasks.add(task);
+        stats.onScheduled();
+        handler.postDelayed(task, delayMillis);
+    }
+
+    void cancel(Task task) {
+        if (!pendingTasks.remove(task)) {
+            return;
+        }
+        handler.removeCallbacks(task);
+        task.scheduler = null;
+        stats.onCancelled();
+    }
+
+    void cancelAll() {
+        for (int i = pendingTasks.size() - 1; i >= 0; i--) {
+            Task task = pendingTasks.remove(i);
+            handler.removeCallbacks(task);
+            task.scheduler = null;
+            stats.onCancelled();
+        }
+    }
+
+    TaskQueueStats getStats() { // queue depth & how late the tasks ran, since the last reset
+        return stats;
+    }
+
+    private void onTaskRun(Task task) {
+        pendingTasks.remove(task);
+        task.scheduler = null;
+        stats.onRun(System.nanoTime() - task.dueAtNanos);
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            cancelAll();
+            lifecycle.removeObserver(this);
+            lifecycle = null; // later schedule() calls are dropped
+        }
+    }
+}
@@ -5,8 +5,14 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.preference.MultiSelectListPreference;
 import androidx.preference.PreferenceFragmentCompat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public class SettingsFragment extends PreferenceFragmentCompat {
 
 //    public SettingsFragment() {
@@ -15,6 +21,25 @@ public class SettingsFragment extends PreferenceFragmentCompat {
     @Override
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
         addPreferencesFromResource(R.xml.quiz_preferences); // load settings from xml file
+        addAnimalPackTypes();
+    }
+
+    // categories of the indexed animal packs are listed after the built in ones, not selected until the user picks them
+    private void addAnimalPackTypes() {
+        MultiSelectListPreference animalTypesPreference = findPreference(MainActivity.ANIMAL_TYPES_KEY);
+        List<String> packAnimalTypes = new ArrayList<>(AnimalPackStore.getPackAnimalTypes(getActivity()));
+        if (animalTypesPreference == null || packAnimalTypes.isEmpty()) {
+            return;
+        }
+        Collections.sort(packAnimalTypes);
+        List<CharSequence> entries = new ArrayList<>(Arrays.asList(animalTypesPreference.getEntries()));
+        List<CharSequence> entryValues = new ArrayList<>(Arrays.asList(animalTypesPreference.getEntryValues()));
+        for (String animalType : packAnimalTypes) {
+            entries.add(animalType.replace('_', ' ')); // folder name -> Sea_Animals shows as Sea Animals
+            entryValues.add(animalType);
+        }
+        animalTypesPreference.setEntries(entries.toArray(new CharSequence[0]));
+        animalTypesPreference.setEntryValues(entryValues.toArray(new CharSequence[0]));
     }
 
     @Override
@@ -0,0 +1,82 @@
+package com.prakriti.animalquizapp;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.ColorRes;
+
+import java.util.HashMap;
+
+// colours of one background colour setting, already resolved to ARGB ints
+// all palettes are resolved together the first time one is needed, applying a theme after that never touches resources
+public final class ThemePalette {
+
+    public static final String DEFAULT_PALETTE = "White"; // same as default_background
+
+    private static HashMap<String, ThemePalette> palettes; // preference value -> palette, resolved once per process
+
+    @ColorInt private final int backgroundColor;
+    @ColorInt private final int buttonColor;
+    @ColorInt private final int buttonTextColor;
+    @ColorInt private final int textColor; // question number & answer
+
+    private ThemePalette(@ColorInt int backgroundColor, @ColorInt int buttonColor, @ColorInt int buttonTextColor, @ColorInt int textColor) {
+        this.backgroundColor = backgroundColor;
+        this.buttonColor = buttonColor;
+        this.buttonTextColor = buttonTextColor;
+        this.textColor = textColor;
+    }
+
+    // paletteName -> value of the background colour preference, unknown or null names get the default palette
+    public static synchronized ThemePalette forName(Context context, String paletteName) {
+        if (palettes == null) {
+            palettes = resolveAll(context.getResources());
+        }
+        ThemePalette palette = paletteName == null ? null : palettes.get(paletteName);
+        return palette != null ? palette : palettes.get(DEFAULT_PALETTE);
+    }
+
+    private static HashMap<String, ThemePalette> resolveAll(Resources resources) {
+        HashMap<String, ThemePalette> resolved = new HashMap<>();
+        // keys are the entries of choose_bg_colors
+        resolved.put("White", lightPalette(resources, R.color.white));
+        resolved.put("Black", new ThemePalette(color(resources, R.color.black), color(resources, R.color.quiz_grey),
+                color(resources, R.color.black), color(resources, R.color.white))); // dark theme, light buttons & text
+        resolved.put("Green", lightPalette(resources, R.color.quiz_green));
+        resolved.put("Red", lightPalette(resources, R.color.quiz_red));
+        resolved.put("Blue", lightPalette(resources, R.color.quiz_blue));
+        resolved.put("Yellow", lightPalette(resources, R.color.quiz_yellow));
+        return resolved;
+    }
+
+    private static ThemePalette lightPalette(Resources resources, @ColorRes int backgroundColorId) { // same for all other colors
+        return new ThemePalette(color(resources, backgroundColorId), color(resources, R.color.quiz_dark_grey),
+                color(resources, R.color.white), color(resources, R.color.black));
+    }
+
+    @ColorInt
+    private static int color(Resources resources, @ColorRes int colorId) {
+        return resources.getColor(colorId, null);
+    }
+
+    @ColorInt
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    @ColorInt
+    public int getButtonColor() {
+        return buttonColor;
+    }
+
+    @ColorInt
+    public int getButtonTextColor() {
+        return buttonTextColor;
+    }
+
+    @ColorInt
+    public int getTextColor() {
+        return textColor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.RandomSources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// cost of validating a guess - what onClick pays
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AnswerCheckBenchmark {
+
+    @Param({"30", "10000", "1000000"})
+    public int numOfAnimals;
+
+    private QuizEngine quizEngine;
+    private int wrongOptionIndex;
+    private String legacyCorrectAnswer, legacyButtonText;
+
+    @Setup
+    public void setUp() {
+        quizEngine = new QuizEngine(RandomSources.seeded(1));
+        quizEngine.setAnimalCatalog(SyntheticCatalogs.build(numOfAnimals));
+        quizEngine.setAnimalTypes(SyntheticCatalogs.ALL_TYPES);
+        quizEngine.setNumOfOptions(6);
+
+        legacyCorrectAnswer = quizEngine.getAnimalCatalog().getAnimalName(numOfAnimals - 1);
+        legacyButtonText = quizEngine.getAnimalCatalog().getDisplayName(0); // wrong guess
+    }
+
+    @Setup(Level.Iteration)
+    public void startQuiz() { // guess counter starts over, wrong guesses never end the question
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        int correctAnimalId = quizEngine.getCurrentAnimalId();
+        wrongOptionIndex = quizEngine.getOptionId(0) == correctAnimalId ? 1 : 0;
+    }
+
+    @Benchmark
+    public QuizEngine.AnswerResult engineCheckAnswer() { // option index compare
+        return quizEngine.checkAnswer(wrongOptionIndex);
+    }
+
+    @Benchmark
+    public boolean legacyTextCompare() { // old onClick, display name derived from the file name on every click
+        return legacyButtonText.equals(LegacyNames.getExactAnimalName(legacyCorrectAnswer));
+    }
+}
@@ -0,0 +1,69 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.RandomSources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// quiz logic of a cold start, one shot each in a fresh JVM - class loading & interpreted code included
+// startup budget for each is 50 ms (the catalog_scan span & the quiz logic part of first_decode in the app)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ColdStartBenchmark {
+
+    @Param({"30"}) // shipped asset count
+    public int numOfAnimals;
+
+    private String[] wildFileNames, domesticFileNames;
+    private AnimalCatalog animalCatalog;
+
+    @Setup
+    public void setUp() {
+        wildFileNames = fileNames(SyntheticCatalogs.WILD, numOfAnimals - numOfAnimals / 2);
+        domesticFileNames = fileNames(SyntheticCatalogs.DOMESTIC, numOfAnimals / 2);
+        animalCatalog = SyntheticCatalogs.build(numOfAnimals); // catalog class is loaded here, firstQuestion times the engine
+    }
+
+    @Benchmark
+    public AnimalCatalog catalogBuild() {
+        return new AnimalCatalog.Builder()
+                .addAnimalType(SyntheticCatalogs.WILD, wildFileNames)
+                .addAnimalType(SyntheticCatalogs.DOMESTIC, domesticFileNames)
+                .build();
+    }
+
+    @Benchmark
+    public int firstQuestion() { // engine set up until the options of the first question are picked, no image decode
+        QuizEngine quizEngine = new QuizEngine(RandomSources.fast());
+        quizEngine.setAnimalCatalog(animalCatalog);
+        quizEngine.setAnimalTypes(SyntheticCatalogs.ALL_TYPES);
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        return quizEngine.getOptionId(0);
+    }
+
+    private static String[] fileNames(String animalType, int count) {
+        String[] fileNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            fileNames[i] = animalType + "-Animal_" + i + ".png";
+        }
+        return fileNames;
+    }
+}
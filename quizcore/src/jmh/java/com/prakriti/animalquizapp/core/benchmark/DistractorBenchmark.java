@@ -0,0 +1,76 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.RandomSources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// cost of filling the guess buttons for one question - what showNextQuizQuestion pays
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DistractorBenchmark {
+
+    private static final int NUM_OF_OPTIONS = 6; // three rows of guesses
+
+    @Param({"30", "10000", "1000000"})
+    public int numOfAnimals;
+
+    @Param({"false", "true"})
+    public boolean adaptive; // weighted picks from the Fenwick trees instead of the uniform shuffle
+
+    private QuizEngine quizEngine;
+    private List<String> legacyFullNamesList;
+    private SecureRandom legacyRandom;
+
+    @Setup
+    public void setUp() {
+        quizEngine = new QuizEngine(RandomSources.seeded(1));
+        quizEngine.setAdaptiveDifficulty(adaptive);
+        quizEngine.setAnimalCatalog(SyntheticCatalogs.build(numOfAnimals));
+        quizEngine.setAnimalTypes(SyntheticCatalogs.ALL_TYPES);
+        quizEngine.setNumOfOptions(NUM_OF_OPTIONS);
+        quizEngine.reset();
+
+        legacyFullNamesList = new ArrayList<>();
+        for (String animalName : SyntheticCatalogs.animalNames(numOfAnimals)) {
+            legacyFullNamesList.add(animalName);
+        }
+        legacyRandom = new SecureRandom();
+    }
+
+    @Benchmark
+    public void engineStartQuestion(Blackhole blackhole) { // id sampling + precomputed display names
+        quizEngine.startQuestion();
+        for (int i = 0; i < quizEngine.getNumOfOptions(); i++) {
+            blackhole.consume(quizEngine.getAnimalCatalog().getDisplayName(quizEngine.getOptionId(i)));
+        }
+    }
+
+    @Benchmark
+    public void legacyShuffleAndSubstring(Blackhole blackhole) { // old showNextQuizQuestion list churn
+        String correctAnswer = legacyFullNamesList.get(0);
+        Collections.shuffle(legacyFullNamesList, legacyRandom);
+        int correctAnimalNameIndex = legacyFullNamesList.indexOf(correctAnswer);
+        String correctAnswerName = legacyFullNamesList.remove(correctAnimalNameIndex);
+        legacyFullNamesList.add(correctAnswerName);
+        for (int i = 0; i < NUM_OF_OPTIONS; i++) {
+            blackhole.consume(LegacyNames.getExactAnimalName(legacyFullNamesList.get(i)));
+        }
+        blackhole.consume(LegacyNames.getExactAnimalName(correctAnswer));
+    }
+}
@@ -0,0 +1,11 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+// name handling as MainFragment did it before the catalog precomputed display names, kept as a baseline
+final class LegacyNames {
+
+    private LegacyNames() {}
+
+    static String getExactAnimalName(String correctAnswer) {
+        return correctAnswer.substring(correctAnswer.indexOf('-') + 1).replace('_', ' ');
+    }
+}
@@ -0,0 +1,41 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.MetricsRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+// what timing one call & counting it adds to onClick, with metrics off (release) & on (debug)
+// run with 4 threads, so contention on the shared counters & histogram buckets shows up too
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class MetricsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private MetricsRegistry metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = new MetricsRegistry(enabled);
+    }
+
+    @Benchmark
+    public void timeAndCount() {
+        long startNanos = metrics.startTimer();
+        metrics.increment(MetricsRegistry.CORRECT_ANSWERS);
+        metrics.stopTimer(MetricsRegistry.ANSWER, startNanos);
+    }
+}
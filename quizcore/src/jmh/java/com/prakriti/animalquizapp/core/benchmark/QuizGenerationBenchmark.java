@@ -0,0 +1,81 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.AnimalSampler;
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.RandomSources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// cost of starting a quiz - what resetAnimalQuiz pays
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QuizGenerationBenchmark {
+
+    @Param({"30", "10000", "1000000"})
+    public int numOfAnimals;
+
+    private QuizEngine quizEngine;
+    private AnimalSampler animalSampler;
+    private int[] sampledIds;
+    private List<String> legacyFullNamesList, legacyQuizNamesList;
+    private SecureRandom legacyRandom;
+
+    @Setup
+    public void setUp() {
+        quizEngine = new QuizEngine(RandomSources.seeded(1));
+        quizEngine.setAnimalCatalog(SyntheticCatalogs.build(numOfAnimals));
+        quizEngine.setAnimalTypes(SyntheticCatalogs.ALL_TYPES);
+
+        int[] allIds = new int[numOfAnimals];
+        for (int i = 0; i < numOfAnimals; i++) {
+            allIds[i] = i;
+        }
+        animalSampler = new AnimalSampler(RandomSources.seeded(1));
+        animalSampler.setPool(allIds);
+        sampledIds = new int[QuizEngine.DEFAULT_NUM_OF_QUESTIONS];
+
+        legacyFullNamesList = new ArrayList<>();
+        for (String animalName : SyntheticCatalogs.animalNames(numOfAnimals)) {
+            legacyFullNamesList.add(animalName);
+        }
+        legacyQuizNamesList = new ArrayList<>();
+        legacyRandom = new SecureRandom();
+    }
+
+    @Benchmark
+    public boolean engineReset() { // type filter lookup + pool copy + sampling
+        return quizEngine.reset();
+    }
+
+    @Benchmark
+    public int samplerOnly() { // partial Fisher-Yates, O(questions)
+        return animalSampler.sample(QuizEngine.DEFAULT_NUM_OF_QUESTIONS, sampledIds);
+    }
+
+    @Benchmark
+    public List<String> legacyRejectionSampling() { // old resetAnimalQuiz loop, contains() on every pick
+        legacyQuizNamesList.clear();
+        int counter = 1;
+        while (counter <= QuizEngine.DEFAULT_NUM_OF_QUESTIONS) {
+            String animalName = legacyFullNamesList.get(legacyRandom.nextInt(legacyFullNamesList.size()));
+            if (!legacyQuizNamesList.contains(animalName)) {
+                legacyQuizNamesList.add(animalName);
+                ++counter;
+            }
+        }
+        return legacyQuizNamesList;
+    }
+}
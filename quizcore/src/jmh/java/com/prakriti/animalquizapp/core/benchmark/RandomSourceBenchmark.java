@@ -0,0 +1,86 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.RandomSource;
+import com.prakriti.animalquizapp.core.RandomSources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// SecureRandom (what MainFragment uses) against faster generators, for the bounded ints the quiz draws
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RandomSourceBenchmark {
+
+    private static final int BOUND = 30; // about the size of the real catalog
+
+    private SecureRandom secureRandom;
+    private Random random;
+    private SplittableRandom splittableRandom;
+    private RandomSource fastSource, secureSource; // what QuizEngine actually calls, through the interface
+
+    @Setup
+    public void setUp() {
+        secureRandom = new SecureRandom();
+        random = new Random(1);
+        splittableRandom = new SplittableRandom(1);
+        fastSource = RandomSources.seeded(1);
+        secureSource = RandomSources.secure();
+    }
+
+    @Benchmark
+    public int secureRandomNextInt() {
+        return secureRandom.nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int randomNextInt() {
+        return random.nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int splittableRandomNextInt() {
+        return splittableRandom.nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int threadLocalRandomNextInt() {
+        return ThreadLocalRandom.current().nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int fastSourceNextInt() {
+        return fastSource.nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int secureSourceNextInt() {
+        return secureSource.nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int secureRandomCreateAndFirstInt() { // what onCreateView paid, incl. seeding
+        return new SecureRandom().nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int splittableRandomCreateAndFirstInt() {
+        return new SplittableRandom().nextInt(BOUND);
+    }
+
+    @Benchmark
+    public int fastSourceCreateAndFirstInt() { // what onCreateView pays now
+        return RandomSources.fast().nextInt(BOUND);
+    }
+}
@@ -0,0 +1,42 @@
+package com.prakriti.animalquizapp.core.benchmark;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+// made up catalogs of any size, half wild & half domestic, named like the real assets
+final class SyntheticCatalogs {
+
+    static final String WILD = "Wild_Animals";
+    static final String DOMESTIC = "Domestic_Animals";
+    static final Collection<String> ALL_TYPES = new HashSet<>(Arrays.asList(WILD, DOMESTIC));
+
+    private SyntheticCatalogs() {}
+
+    static AnimalCatalog build(int numOfAnimals) {
+        return new AnimalCatalog.Builder()
+                .addAnimalType(WILD, fileNames(WILD, numOfAnimals - numOfAnimals / 2))
+                .addAnimalType(DOMESTIC, fileNames(DOMESTIC, numOfAnimals / 2))
+                .build();
+    }
+
+    // same names the old MainFragment worked with, full name without ".png"
+    static String[] animalNames(int numOfAnimals) {
+        String[] animalNames = new String[numOfAnimals];
+        AnimalCatalog animalCatalog = build(numOfAnimals);
+        for (int animalId = 0; animalId < numOfAnimals; animalId++) {
+            animalNames[animalId] = animalCatalog.getAnimalName(animalId);
+        }
+        return animalNames;
+    }
+
+    private static String[] fileNames(String animalType, int count) {
+        String[] fileNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            fileNames[i] = animalType + "-Animal_" + i + ".png";
+        }
+        return fileNames;
+    }
+}
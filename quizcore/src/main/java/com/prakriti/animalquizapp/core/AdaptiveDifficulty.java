@@ -0,0 +1,159 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Arrays;
+
+// learns which animals the player gets wrong & which ones they mix up, and asks about those more often
+// stats are primitive arrays indexed by animal id, every answer updates them & the sampling weights in O(log n),
+// so picking a quiz never goes back over the answer history
+public class AdaptiveDifficulty {
+
+    // question weight = BASE_WEIGHT + MISS_RATE_WEIGHT * smoothed miss rate, an animal always missed is asked ~5x as often
+    static final int BASE_WEIGHT = 16;
+    static final int MISS_RATE_WEIGHT = 64;
+    // distractor weight grows by this for every time the animal was wrongly picked, up to MAX_WRONG_PICKS times
+    static final int WRONG_PICK_WEIGHT = 8;
+    static final int MAX_WRONG_PICKS = 8;
+
+    private final RandomSource random;
+    private int[] numOfTimesAsked; // animal id -> questions about it answered
+    private int[] numOfTimesMissed; // animal id -> of those, answered with at least one wrong guess
+    private int[] numOfWrongPicks; // animal id -> times it was guessed for another animal
+    private int[] mostConfusedWith; // animal id -> animal guessed for it most often, -1 if never mixed up
+    private final ConfusionCounts confusionCounts; // (correct, guessed) -> wrong guesses
+    private final WeightedSampler questionWeights, distractorWeights; // 0 for animals not in the quiz
+    private boolean[] isInPool; // animal id -> of a selected animal type
+    private boolean[] isInNewPool = new boolean[0]; // scratch for setPool, kept so a quiz reset allocates nothing
+
+    public AdaptiveDifficulty(RandomSource random, int catalogSize) {
+        this.random = random;
+        numOfTimesAsked = new int[catalogSize];
+        numOfTimesMissed = new int[catalogSize];
+        numOfWrongPicks = new int[catalogSize];
+        mostConfusedWith = new int[catalogSize];
+        Arrays.fill(mostConfusedWith, -1);
+        confusionCounts = new ConfusionCounts(catalogSize);
+        questionWeights = new WeightedSampler(catalogSize);
+        distractorWeights = new WeightedSampler(catalogSize);
+        isInPool = new boolean[catalogSize];
+    }
+
+    // room for the animals of a catalog that grew, stats of the animals already there are kept & new ones start out of the pool
+    public void ensureCapacity(int catalogSize) {
+        int oldSize = isInPool.length;
+        if (catalogSize <= oldSize) {
+            return;
+        }
+        numOfTimesAsked = Arrays.copyOf(numOfTimesAsked, catalogSize);
+        numOfTimesMissed = Arrays.copyOf(numOfTimesMissed, catalogSize);
+        numOfWrongPicks = Arrays.copyOf(numOfWrongPicks, catalogSize);
+        mostConfusedWith = Arrays.copyOf(mostConfusedWith, catalogSize);
+        Arrays.fill(mostConfusedWith, oldSize, catalogSize, -1);
+        isInPool = Arrays.copyOf(isInPool, catalogSize);
+        questionWeights.ensureCapacity(catalogSize);
+        distractorWeights.ensureCapacity(catalogSize);
+    }
+
+    // animals that can be asked & shown, only the ids whose membership changed are touched
+    public void setPool(int[] animalIds) {
+        if (isInNewPool.length != isInPool.length) {
+            isInNewPool = new boolean[isInPool.length]; // first pool, or the catalog grew
+        }
+        else {
+            Arrays.fill(isInNewPool, false);
+        }
+        for (int animalId : animalIds) {
+            isInNewPool[animalId] = true;
+        }
+        for (int animalId = 0; animalId < isInPool.length; animalId++) {
+            if (isInNewPool[animalId] != isInPool[animalId]) {
+                if (isInNewPool[animalId]) {
+                    addToPool(animalId);
+                }
+                else {
+                    removeFromPool(animalId);
+                }
+            }
+        }
+    }
+
+    public void addToPool(int animalId) {
+        isInPool[animalId] = true;
+        updateWeights(animalId);
+    }
+
+    public void removeFromPool(int animalId) {
+        isInPool[animalId] = false;
+        updateWeights(animalId);
+    }
+
+    // appends up to count distinct animals to animalIds[offset ..], leaving out those already in animalIds[0 .. offset)
+    // returns how many were appended
+    public int sampleQuestions(int count, int[] animalIds, int offset) {
+        return questionWeights.sampleDistinct(random, count, animalIds, offset);
+    }
+
+    // same contract as DistractorPicker.pickOptions, numOfOptions must be at most the pool size
+    // the animal most often guessed for the correct one is always among the wrong answers, the rest are weighted
+    public int pickOptions(int correctAnimalId, int numOfOptions, int[] options) {
+        if (numOfOptions == 0) {
+            return -1;
+        }
+        options[0] = correctAnimalId; // excluded from sampling by being in front
+        int numPicked = 1;
+        int confusedAnimalId = mostConfusedWith[correctAnimalId];
+        if (numOfOptions > 1 && confusedAnimalId >= 0 && isInPool[confusedAnimalId]) {
+            options[numPicked++] = confusedAnimalId;
+        }
+        numPicked += distractorWeights.sampleDistinct(random, numOfOptions - numPicked, options, numPicked);
+        int correctIndex = random.nextInt(numPicked); // random button for the correct answer
+        options[0] = options[correctIndex];
+        options[correctIndex] = correctAnimalId;
+        return correctIndex;
+    }
+
+    public void recordWrongGuess(int correctAnimalId, int guessedAnimalId) {
+        int count = confusionCounts.increment(correctAnimalId, guessedAnimalId);
+        int confusedAnimalId = mostConfusedWith[correctAnimalId];
+        if (confusedAnimalId != guessedAnimalId
+                && (confusedAnimalId < 0 || count > confusionCounts.get(correctAnimalId, confusedAnimalId))) {
+            mostConfusedWith[correctAnimalId] = guessedAnimalId; // only the pair that changed can overtake
+        }
+        if (numOfWrongPicks[guessedAnimalId] < MAX_WRONG_PICKS) {
+            ++numOfWrongPicks[guessedAnimalId];
+            updateWeights(guessedAnimalId);
+        }
+    }
+
+    // numOfGuesses -> guesses the question took, 1 if answered right away
+    public void recordQuestionAnswered(int animalId, int numOfGuesses) {
+        ++numOfTimesAsked[animalId];
+        if (numOfGuesses > 1) {
+            ++numOfTimesMissed[animalId];
+        }
+        updateWeights(animalId);
+    }
+
+    public int getConfusionCount(int correctAnimalId, int guessedAnimalId) {
+        return confusionCounts.get(correctAnimalId, guessedAnimalId);
+    }
+
+    public int getMostConfusedWith(int animalId) {
+        return mostConfusedWith[animalId];
+    }
+
+    int getQuestionWeight(int animalId) { // tests
+        return questionWeights.getWeight(animalId);
+    }
+
+    private void updateWeights(int animalId) {
+        if (!isInPool[animalId]) {
+            questionWeights.setWeight(animalId, 0);
+            distractorWeights.setWeight(animalId, 0);
+            return;
+        }
+        // miss rate with one miss & one hit assumed up front, so new animals start in the middle
+        int missRateWeight = MISS_RATE_WEIGHT * (numOfTimesMissed[animalId] + 1) / (numOfTimesAsked[animalId] + 2);
+        questionWeights.setWeight(animalId, BASE_WEIGHT + missRateWeight);
+        distractorWeights.setWeight(animalId, BASE_WEIGHT + WRONG_PICK_WEIGHT * numOfWrongPicks[animalId]);
+    }
+}
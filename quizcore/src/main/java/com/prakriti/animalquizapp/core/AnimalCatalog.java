@@ -0,0 +1,164 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// all animals in the quiz, built once from the asset folders & grown by animal packs
+// every animal gets an integer id (its index in the arrays below) & names are worked out once here
+// a catalog never changes, a pack makes a bigger copy in which the animals already there keep their ids
+public class AnimalCatalog {
+
+    private final String[] animalNames; // full name without ".png" -> Wild_Animals-Pink_Panther
+    private final String[] displayNames; // name shown on the guess buttons -> Pink Panther
+    private final String[] imagePaths; // path inside assets -> Wild_Animals/Wild_Animals-Pink_Panther.png, or inside a pack
+    private final int[] animalTypeIndexes; // index into animalTypes for each animal
+    private final List<String> animalTypes; // folder names, same as animal_types_entry_values
+    private final int[][] animalIdsByType; // ids of all animals of a type, per index in animalTypes
+    private final HashMap<String, Integer> animalIdsByName; // for restoring saved quizzes, which keep names not ids
+
+    private AnimalCatalog(Builder builder) {
+        int size = builder.animalNames.size();
+        animalNames = builder.animalNames.toArray(new String[size]);
+        displayNames = new String[size];
+        imagePaths = builder.imagePaths.toArray(new String[size]);
+        animalTypeIndexes = new int[size];
+        animalTypes = new ArrayList<>(builder.animalTypes);
+        animalIdsByType = new int[animalTypes.size()][];
+        animalIdsByName = new HashMap<>(size * 2);
+
+        int[] countsByType = new int[animalTypes.size()];
+        for (int id = 0; id < size; id++) {
+            animalTypeIndexes[id] = builder.animalTypeIndexes.get(id);
+            displayNames[id] = toDisplayName(animalNames[id]);
+            ++countsByType[animalTypeIndexes[id]];
+            animalIdsByName.put(animalNames[id], id); // names are unique, the builder skips repeats
+        }
+        for (int type = 0; type < animalTypes.size(); type++) {
+            animalIdsByType[type] = new int[countsByType[type]];
+            countsByType[type] = 0; // reused as fill position below
+        }
+        for (int id = 0; id < size; id++) {
+            int type = animalTypeIndexes[id];
+            animalIdsByType[type][countsByType[type]++] = id;
+        }
+    }
+
+    public int size() {
+        return animalNames.length;
+    }
+
+    public String getAnimalName(int animalId) {
+        return animalNames[animalId];
+    }
+
+    public int findAnimalId(String animalName) { // -1 if there is no such animal, e.g. after its images were removed
+        Integer id = animalIdsByName.get(animalName);
+        return id == null ? -1 : id;
+    }
+
+    public String getDisplayName(int animalId) {
+        return displayNames[animalId];
+    }
+
+    public String getImagePath(int animalId) {
+        return imagePaths[animalId];
+    }
+
+    public String getAnimalType(int animalId) {
+        return animalTypes.get(animalTypeIndexes[animalId]);
+    }
+
+    public List<String> getAnimalTypes() {
+        return animalTypes;
+    }
+
+    // ids of all animals of one type, shared array - do not modify
+    public int[] getAnimalIdsOfType(String animalType) {
+        int type = animalTypes.indexOf(animalType);
+        return type < 0 ? new int[0] : animalIdsByType[type];
+    }
+
+    // ids of all animals in the selected types, no filesystem access
+    public int[] getAnimalIdsForTypes(Collection<String> selectedTypes) {
+        int count = 0;
+        for (int type = 0; type < animalTypes.size(); type++) {
+            if (selectedTypes.contains(animalTypes.get(type))) {
+                count += animalIdsByType[type].length;
+            }
+        }
+        int[] animalIds = new int[count];
+        int position = 0;
+        for (int type = 0; type < animalTypes.size(); type++) {
+            if (selectedTypes.contains(animalTypes.get(type))) {
+                int[] idsOfType = animalIdsByType[type];
+                System.arraycopy(idsOfType, 0, animalIds, position, idsOfType.length);
+                position += idsOfType.length;
+            }
+        }
+        return animalIds;
+    }
+
+    // get just the name from full path -> Wild_Animals-Pink_Panther becomes Pink Panther
+    static String toDisplayName(String animalName) {
+        return animalName.substring(animalName.indexOf('-') + 1).replace('_', ' ');
+    }
+
+    public static class Builder {
+
+        private final List<String> animalTypes = new ArrayList<>();
+        private final List<String> animalNames = new ArrayList<>();
+        private final List<String> imagePaths = new ArrayList<>();
+        private final List<Integer> animalTypeIndexes = new ArrayList<>();
+        private final Set<String> namesInCatalog = new HashSet<>();
+
+        public Builder() {
+        }
+
+        // starts with every animal of base under the same id, so quizzes & stats of base carry over to the new catalog
+        public Builder(AnimalCatalog base) {
+            animalTypes.addAll(base.animalTypes);
+            animalNames.addAll(Arrays.asList(base.animalNames));
+            imagePaths.addAll(Arrays.asList(base.imagePaths));
+            for (int typeIndex : base.animalTypeIndexes) {
+                animalTypeIndexes.add(typeIndex);
+            }
+            namesInCatalog.addAll(animalNames);
+        }
+
+        // fileNames as listed in the animal type's folder, e.g. Wild_Animals-Bear.png
+        public Builder addAnimalType(String animalType, String[] fileNames) {
+            return addAnimalType(animalType, fileNames, animalType); // asset folder is named after the type
+        }
+
+        // imageFolder -> where the files are, e.g. the type's folder inside an animal pack
+        public Builder addAnimalType(String animalType, String[] fileNames, String imageFolder) {
+            int typeIndex = animalTypes.indexOf(animalType);
+            if (typeIndex < 0) {
+                typeIndex = animalTypes.size();
+                animalTypes.add(animalType);
+            }
+            for (String fileName : fileNames) {
+                if (!fileName.endsWith(".png")) {
+                    continue; // not an animal image
+                }
+                String animalName = fileName.substring(0, fileName.length() - ".png".length());
+                if (!namesInCatalog.add(animalName)) {
+                    continue; // already in from another folder or pack, would show up twice on the buttons
+                }
+                animalNames.add(animalName);
+                imagePaths.add(imageFolder + "/" + fileName);
+                animalTypeIndexes.add(typeIndex);
+            }
+            return this;
+        }
+
+        public AnimalCatalog build() {
+            return new AnimalCatalog(this);
+        }
+    }
+}
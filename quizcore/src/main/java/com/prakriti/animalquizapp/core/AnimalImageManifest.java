@@ -0,0 +1,173 @@
+package com.prakriti.animalquizapp.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// sizes & locations of the packed animal images, written by app/animal-images.gradle
+// every original image (its source path, e.g. Wild_Animals/Wild_Animals-Bear.png) has a few resized variants,
+// the smallest one covering the ImageView is decoded - sizes are known up front, no need to read image headers
+// variants are either separate asset files listed in a text manifest, or slices of one bundle with a binary index
+public class AnimalImageManifest {
+
+    public static final String FILE_NAME = "animal_images.manifest"; // at the root of assets
+    public static final String BUNDLE_FILE_NAME = "animal_images.bundle";
+    private static final int BUNDLE_MAGIC = 0x41514231; // "AQB1"
+
+    public static class Variant {
+        public final String path; // inside assets, null if the variant is in the bundle
+        public final int width, height;
+        final int bundleOffset, bundleLength; // position in the bundle, -1 for asset files
+
+        Variant(String path, int width, int height) {
+            this(path, width, height, -1, -1);
+        }
+
+        Variant(String path, int width, int height, int bundleOffset, int bundleLength) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.bundleOffset = bundleOffset;
+            this.bundleLength = bundleLength;
+        }
+
+        public boolean isInBundle() {
+            return bundleOffset >= 0;
+        }
+    }
+
+    private final LinkedHashMap<String, Variant[]> variantsBySource; // smallest variant first
+    private final ByteBuffer bundle; // whole bundle file, null for a text manifest
+
+    private AnimalImageManifest(LinkedHashMap<String, Variant[]> variantsBySource, ByteBuffer bundle) {
+        this.variantsBySource = variantsBySource;
+        this.bundle = bundle;
+    }
+
+    // bundle -> whole bundle file, e.g. memory mapped - only its index is read here, images are sliced out of it when decoded
+    public static AnimalImageManifest readBundle(ByteBuffer bundle) throws IOException {
+        ByteBuffer index = bundle.duplicate().order(ByteOrder.BIG_ENDIAN);
+        index.position(0);
+        try {
+            if (index.getInt() != BUNDLE_MAGIC) {
+                throw new IOException("Not an animal image bundle");
+            }
+            long dataStart = 8L + index.getInt(); // images follow the index, offsets are checked as longs so corrupt ones can't wrap around
+            if (dataStart < 8 || dataStart > bundle.limit()) {
+                throw new IOException("Bundle index is corrupt");
+            }
+            String[] animalTypes = new String[index.getInt()];
+            for (int type = 0; type < animalTypes.length; type++) {
+                animalTypes[type] = readBundleString(index);
+            }
+            int numOfAnimals = index.getInt();
+            LinkedHashMap<String, Variant[]> variantsBySource = new LinkedHashMap<>(numOfAnimals * 2);
+            for (int animalId = 0; animalId < numOfAnimals; animalId++) {
+                String animalType = animalTypes[index.getShort()];
+                String animalName = readBundleString(index);
+                Variant[] variants = new Variant[index.get() & 0xFF];
+                if (variants.length == 0) {
+                    throw new IOException("No variants of " + animalName); // pickVariant needs at least one
+                }
+                for (int i = 0; i < variants.length; i++) {
+                    int width = index.getShort() & 0xFFFF;
+                    int height = index.getShort() & 0xFFFF;
+                    long offset = dataStart + index.getInt();
+                    int length = index.getInt();
+                    if (offset < dataStart || length < 0) {
+                        throw new IOException("Bad variant of " + animalName);
+                    }
+                    if (offset + length > bundle.limit()) {
+                        throw new IOException("Bundle is truncated at " + animalName);
+                    }
+                    variants[i] = new Variant(null, width, height, (int) offset, length);
+                }
+                variantsBySource.put(animalType + "/" + animalName + ".png", variants); // same path as in the catalog
+            }
+            return new AnimalImageManifest(variantsBySource, bundle);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Bundle index is corrupt", e);
+        }
+    }
+
+    private static String readBundleString(ByteBuffer index) {
+        byte[] bytes = new byte[index.getShort() & 0xFFFF];
+        index.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // bytes of a bundled variant, a view of the bundle - nothing is copied
+    public ByteBuffer getBundleSlice(Variant variant) {
+        ByteBuffer slice = bundle.duplicate();
+        slice.limit(variant.bundleOffset + variant.bundleLength);
+        slice.position(variant.bundleOffset);
+        return slice.slice();
+    }
+
+    // one line per variant -> source path, width, height & variant path separated by tabs, # starts a comment
+    public static AnimalImageManifest parse(Reader reader) throws IOException {
+        LinkedHashMap<String, List<Variant>> variantLists = new LinkedHashMap<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            if (columns.length != 4) {
+                throw new IOException("Bad manifest line: " + line);
+            }
+            List<Variant> variants = variantLists.get(columns[0]);
+            if (variants == null) {
+                variants = new ArrayList<>();
+                variantLists.put(columns[0], variants);
+            }
+            try {
+                variants.add(new Variant(columns[3], Integer.parseInt(columns[1]), Integer.parseInt(columns[2])));
+            }
+            catch (NumberFormatException e) {
+                throw new IOException("Bad manifest line: " + line, e);
+            }
+        }
+        LinkedHashMap<String, Variant[]> variantsBySource = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Variant>> entry : variantLists.entrySet()) {
+            variantsBySource.put(entry.getKey(), entry.getValue().toArray(new Variant[0]));
+        }
+        return new AnimalImageManifest(variantsBySource, null);
+    }
+
+    // file names of the original images of one type, in the same form as a listing of the type's folder
+    public String[] getFileNames(String animalType) {
+        String folder = animalType + "/";
+        List<String> fileNames = new ArrayList<>();
+        for (String sourcePath : variantsBySource.keySet()) {
+            if (sourcePath.startsWith(folder)) {
+                fileNames.add(sourcePath.substring(folder.length()));
+            }
+        }
+        return fileNames.toArray(new String[0]);
+    }
+
+    // smallest variant at least as big as the target on both sides, the biggest one if none is - null if the image is not packed
+    public Variant pickVariant(String sourcePath, int targetWidth, int targetHeight) {
+        Variant[] variants = variantsBySource.get(sourcePath);
+        if (variants == null) {
+            return null;
+        }
+        for (Variant variant : variants) {
+            if (variant.width >= targetWidth && variant.height >= targetHeight) {
+                return variant;
+            }
+        }
+        return variants[variants.length - 1];
+    }
+}
@@ -0,0 +1,127 @@
+package com.prakriti.animalquizapp.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// a zip of extra animals, laid out like the asset folders -> Birds/Birds-Robin.png
+// opening it reads only the zip's central directory, images stay compressed in the zip until extractImage is called
+// the zip is kept open for extracting, ZipFile can be read from several threads
+public class AnimalPack implements Closeable {
+
+    public static final String IMAGE_PATH_PREFIX = "pack:"; // catalog image paths of pack animals -> pack:birds.zip/Birds/Birds-Robin.png
+
+    private final String fileName;
+    private final String cacheName; // folder for the extracted images, changes when the zip is replaced
+    private final ZipFile zipFile;
+    private final Map<String, List<String>> fileNamesByType = new LinkedHashMap<>(); // in zip order
+
+    private AnimalPack(File file) throws IOException {
+        fileName = file.getName();
+        cacheName = fileName + "-" + Long.toHexString(file.lastModified());
+        zipFile = new ZipFile(file);
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String entryName = entry.getName();
+            int slash = entryName.indexOf('/');
+            if (entry.isDirectory() || slash <= 0 || slash != entryName.lastIndexOf('/')) {
+                continue; // only files directly inside a type folder
+            }
+            String animalType = entryName.substring(0, slash);
+            String imageFileName = entryName.substring(slash + 1);
+            if (animalType.startsWith(".") || imageFileName.startsWith(".") || entryName.indexOf('\\') >= 0) {
+                continue; // hidden files & names that could point outside the cache folder once extracted
+            }
+            List<String> fileNames = fileNamesByType.get(animalType);
+            if (fileNames == null) {
+                fileNames = new ArrayList<>();
+                fileNamesByType.put(animalType, fileNames);
+            }
+            fileNames.add(imageFileName);
+        }
+    }
+
+    public static AnimalPack open(File file) throws IOException {
+        return new AnimalPack(file);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public List<String> getAnimalTypes() {
+        return new ArrayList<>(fileNamesByType.keySet());
+    }
+
+    public String[] getFileNames(String animalType) {
+        List<String> fileNames = fileNamesByType.get(animalType);
+        return fileNames == null ? new String[0] : fileNames.toArray(new String[0]);
+    }
+
+    // adds the pack's animals after the ones already in builder, types with the same name as a folder in assets are merged
+    public void addTo(AnimalCatalog.Builder builder) {
+        for (Map.Entry<String, List<String>> type : fileNamesByType.entrySet()) {
+            String imageFolder = IMAGE_PATH_PREFIX + fileName + "/" + type.getKey();
+            builder.addAnimalType(type.getKey(), type.getValue().toArray(new String[0]), imageFolder);
+        }
+    }
+
+    public static boolean isPackImagePath(String imagePath) {
+        return imagePath.startsWith(IMAGE_PATH_PREFIX);
+    }
+
+    // pack:birds.zip/Birds/Birds-Robin.png -> birds.zip
+    public static String getPackFileName(String imagePath) {
+        return imagePath.substring(IMAGE_PATH_PREFIX.length(), imagePath.indexOf('/', IMAGE_PATH_PREFIX.length()));
+    }
+
+    // the image as a file in cacheDirectory, copied out of the zip the first time it is asked for
+    // written to a temp file & renamed, so a decode running at the same time never sees half an image
+    public File extractImage(String imagePath, File cacheDirectory) throws IOException {
+        String entryName = imagePath.substring(IMAGE_PATH_PREFIX.length() + fileName.length() + 1);
+        File imageFile = new File(new File(cacheDirectory, cacheName), entryName);
+        if (imageFile.exists()) {
+            return imageFile;
+        }
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            throw new IOException("No " + entryName + " in " + fileName);
+        }
+        File typeDirectory = imageFile.getParentFile();
+        typeDirectory.mkdirs();
+        File tempFile = File.createTempFile("extract", ".tmp", typeDirectory);
+        try (InputStream in = zipFile.getInputStream(entry); OutputStream out = new FileOutputStream(tempFile)) {
+            byte[] buffer = new byte[16 * 1024];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                out.write(buffer, 0, count);
+            }
+        }
+        catch (IOException e) {
+            tempFile.delete();
+            throw e;
+        }
+        if (!tempFile.renameTo(imageFile) && !imageFile.exists()) {
+            tempFile.delete();
+            throw new IOException("Could not extract " + entryName);
+        }
+        tempFile.delete(); // only still there if another thread extracted it first
+        return imageFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.prakriti.animalquizapp.core;
+
+// picks distinct animal ids for the quiz with a partial Fisher-Yates shuffle
+// k picks cost O(k) - no retries & no duplicate checks, asking for more ids than available just returns all of them
+// the pool is copied into an array kept across quizzes, only reallocated when a bigger pool comes in
+public class AnimalSampler {
+
+    private final RandomSource random; // RandomSources.seeded() for repeatable quizzes in tests
+    private int[] pool = new int[0]; // first poolSize entries are the ids, shuffled in place
+    private int poolSize;
+
+    public AnimalSampler(RandomSource random) {
+        this.random = random;
+    }
+
+    public void setPool(int[] animalIds) {
+        setPool(animalIds, animalIds.length);
+    }
+
+    // first count ids of animalIds, caller keeps its own array & order
+    public void setPool(int[] animalIds, int count) {
+        if (pool.length < count) {
+            pool = new int[count];
+        }
+        System.arraycopy(animalIds, 0, pool, 0, count);
+        poolSize = count;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    // writes min(count, pool size) distinct ids into sampledIds, returns how many were written
+    public int sample(int count, int[] sampledIds) {
+        return sample(count, sampledIds, 0);
+    }
+
+    // same, written from sampledIds[offset] on
+    public int sample(int count, int[] sampledIds, int offset) {
+        int numToSample = Math.min(count, poolSize);
+        for (int i = 0; i < numToSample; i++) {
+            int randomIndex = i + random.nextInt(poolSize - i); // pick from the part not sampled yet
+            int animalId = pool[randomIndex];
+            pool[randomIndex] = pool[i];
+            pool[i] = animalId;
+            sampledIds[offset + i] = animalId;
+        }
+        return numToSample;
+    }
+}
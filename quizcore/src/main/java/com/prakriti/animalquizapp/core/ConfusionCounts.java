@@ -0,0 +1,81 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Arrays;
+
+// how often animal A was guessed for animal B, for the pairs that happened at all
+// open addressing over two primitive arrays, the pair is packed into one long key - no boxing & no entry objects
+class ConfusionCounts {
+
+    private static final long EMPTY = -1; // ids are never negative, so no real key looks like this
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    ConfusionCounts(int expectedPairs) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedPairs * 2) - 1) << 1; // power of two, at most half full
+        keys = new long[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int correctAnimalId, int guessedAnimalId) {
+        int slot = findSlot(keys, pack(correctAnimalId, guessedAnimalId));
+        return keys[slot] == EMPTY ? 0 : counts[slot];
+    }
+
+    // returns the count after adding one
+    int increment(int correctAnimalId, int guessedAnimalId) {
+        long key = pack(correctAnimalId, guessedAnimalId);
+        int slot = findSlot(keys, key);
+        if (keys[slot] == EMPTY) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = findSlot(keys, key);
+            }
+            keys[slot] = key;
+            ++size;
+        }
+        return ++counts[slot];
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] != EMPTY) {
+                int slot = findSlot(keys, oldKeys[oldSlot]);
+                keys[slot] = oldKeys[oldSlot];
+                counts[slot] = oldCounts[oldSlot];
+            }
+        }
+    }
+
+    // slot holding key, or the empty slot where it would go - linear probing
+    private static int findSlot(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long pack(int correctAnimalId, int guessedAnimalId) {
+        return ((long) correctAnimalId << 32) | guessedAnimalId;
+    }
+
+    private static int mix(long key) { // spreads neighbouring ids over the table, murmur3 finaliser
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
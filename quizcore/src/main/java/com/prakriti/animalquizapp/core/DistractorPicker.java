@@ -0,0 +1,104 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Arrays;
+
+// picks the wrong answers shown next to the correct one, by sampling animal ids
+// the correct id is swapped to the end of the pool & a partial Fisher-Yates runs over the rest,
+// so a question costs O(number of options) & nothing is allocated once the pool is set
+public class DistractorPicker {
+
+    private final RandomSource random;
+    private int[] pool = new int[0]; // ids of the animals in the quiz in pool[0 .. poolSize), shuffled in place
+    private int poolSize;
+    private int[] positionsInPool = new int[0]; // animal id -> index in pool, -1 if not in pool
+
+    public DistractorPicker(RandomSource random) {
+        this.random = random;
+    }
+
+    // catalogSize -> number of ids in the catalog, ids in animalIds must be below it
+    public void setPool(int[] animalIds, int catalogSize) {
+        if (pool.length != catalogSize) {
+            pool = new int[catalogSize]; // room for every id, so adding never reallocates - only allocated when the catalog changes
+        }
+        System.arraycopy(animalIds, 0, pool, 0, animalIds.length);
+        poolSize = animalIds.length;
+        if (positionsInPool.length != catalogSize) {
+            positionsInPool = new int[catalogSize];
+        }
+        Arrays.fill(positionsInPool, -1);
+        for (int i = 0; i < poolSize; i++) {
+            positionsInPool[pool[i]] = i;
+        }
+    }
+
+    // room for the ids of a catalog that grew, pool is kept as it is
+    public void ensureCapacity(int catalogSize) {
+        int oldSize = positionsInPool.length;
+        if (catalogSize <= oldSize) {
+            return;
+        }
+        pool = Arrays.copyOf(pool, catalogSize);
+        positionsInPool = Arrays.copyOf(positionsInPool, catalogSize);
+        Arrays.fill(positionsInPool, oldSize, catalogSize, -1);
+    }
+
+    // patch the pool in place when animal types are added or removed mid quiz, O(1) per id
+    public void addToPool(int animalId) {
+        if (positionsInPool[animalId] >= 0) {
+            return; // already in
+        }
+        pool[poolSize] = animalId;
+        positionsInPool[animalId] = poolSize;
+        ++poolSize;
+    }
+
+    public void removeFromPool(int animalId) {
+        if (positionsInPool[animalId] < 0) {
+            return; // not in
+        }
+        swap(positionsInPool[animalId], poolSize - 1); // move to the end, then drop the end
+        positionsInPool[animalId] = -1;
+        --poolSize;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    // how many options a question can have, fewer than asked if the pool is small
+    public int getNumOfOptions(int numOfOptionsWanted) {
+        return Math.min(numOfOptionsWanted, poolSize);
+    }
+
+    // fills options with getNumOfOptions(numOfOptionsWanted) distinct ids incl. the correct one, returns index of the correct one
+    public int pickOptions(int correctAnimalId, int numOfOptionsWanted, int[] options) {
+        int numOfOptions = getNumOfOptions(numOfOptionsWanted);
+        if (numOfOptions == 0) {
+            return -1;
+        }
+        int candidates = poolSize; // wrong answers come from pool[0 .. candidates)
+        if (correctAnimalId < positionsInPool.length && positionsInPool[correctAnimalId] >= 0) {
+            swap(positionsInPool[correctAnimalId], poolSize - 1); // park correct answer at the end, out of the way
+            --candidates;
+        }
+        int numOfDistractors = Math.min(numOfOptions - 1, candidates);
+        for (int i = 0; i < numOfDistractors; i++) {
+            swap(i, i + random.nextInt(candidates - i));
+            options[i] = pool[i];
+        }
+        int correctIndex = random.nextInt(numOfDistractors + 1); // random button for the correct answer
+        options[numOfDistractors] = options[correctIndex];
+        options[correctIndex] = correctAnimalId;
+        return correctIndex;
+    }
+
+    private void swap(int first, int second) {
+        int firstId = pool[first];
+        int secondId = pool[second];
+        pool[first] = secondId;
+        pool[second] = firstId;
+        positionsInPool[secondId] = first;
+        positionsInPool[firstId] = second;
+    }
+}
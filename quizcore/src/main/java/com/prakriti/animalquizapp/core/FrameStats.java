@@ -0,0 +1,60 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Locale;
+
+// frame timing over one or more monitored stretches, e.g. the transitions between quiz questions
+// fed with the vsync time of each frame, a frame that took n intervals instead of one counts as n - 1 dropped frames
+public class FrameStats {
+
+    private final long frameIntervalNanos; // 1 / refresh rate
+
+    private long lastFrameNanos = -1; // -1 -> next frame starts a new stretch
+    private int numOfFrames, numOfDroppedFrames;
+    private long longestFrameNanos;
+
+    public FrameStats(long frameIntervalNanos) {
+        this.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    public void onFrame(long frameTimeNanos) {
+        if (lastFrameNanos >= 0) {
+            long frameNanos = frameTimeNanos - lastFrameNanos;
+            ++numOfFrames;
+            longestFrameNanos = Math.max(longestFrameNanos, frameNanos);
+            long intervals = (frameNanos + frameIntervalNanos / 2) / frameIntervalNanos; // rounded, vsync times jitter a bit
+            if (intervals > 1) {
+                numOfDroppedFrames += intervals - 1;
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+    }
+
+    public void endStretch() { // time until the next stretch starts is not a frame
+        lastFrameNanos = -1;
+    }
+
+    public void reset() {
+        lastFrameNanos = -1;
+        numOfFrames = 0;
+        numOfDroppedFrames = 0;
+        longestFrameNanos = 0;
+    }
+
+    public int getNumOfFrames() {
+        return numOfFrames;
+    }
+
+    public int getNumOfDroppedFrames() {
+        return numOfDroppedFrames;
+    }
+
+    public long getLongestFrameNanos() {
+        return longestFrameNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d frames, %d dropped, longest %.1f ms",
+                numOfFrames, numOfDroppedFrames, longestFrameNanos / 1e6);
+    }
+}
@@ -0,0 +1,89 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// durations in ns counted in log-linear buckets like an HDR histogram - every power of two is split in 16 buckets,
+// so any value is known to within 1/16 (~6%) from 1 ns up to centuries, in a fixed 960 counters
+// lock free, any thread can record while another reads percentiles
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_OF_BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS; // highest bit of a positive long is 62
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(NUM_OF_BUCKETS);
+    private final LongAdder count = new LongAdder(), totalNanos = new LongAdder(); // adders don't contend between threads
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        bucketCounts.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get(); // someone else raised it, check again
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanNanos() {
+        long numOfValues = count.sum();
+        return numOfValues == 0 ? 0 : totalNanos.sum() / numOfValues;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // value at or below which the given fraction of the recorded values are, e.g. 0.99 -> p99
+    // the highest value of the bucket it falls in, never more than the max
+    public long getValueAtPercentile(double fraction) {
+        long numOfValues = count.sum();
+        if (numOfValues == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * numOfValues));
+        long seen = 0;
+        for (int index = 0; index < NUM_OF_BUCKETS; index++) {
+            seen += bucketCounts.get(index);
+            if (seen >= target) {
+                return Math.min(highestValueInBucket(index), maxNanos.get());
+            }
+        }
+        return maxNanos.get(); // counts moved on while reading
+    }
+
+    public void reset() { // not atomic with concurrent records, good enough for a debug screen
+        for (int index = 0; index < NUM_OF_BUCKETS; index++) {
+            bucketCounts.set(index, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value; // exact below 16
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1); // next 4 bits after the highest
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int highestBit = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int shift = highestBit - SUB_BUCKET_BITS;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
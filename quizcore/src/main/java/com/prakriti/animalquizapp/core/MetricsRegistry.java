@@ -0,0 +1,145 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// named counters & latency histograms for the quiz screen, for a debug view & a JSON export
+// lock free - counters are LongAdders, histograms are LatencyHistograms, both created on first use
+// when disabled every call returns after reading one volatile flag, nothing is timed, looked up or allocated
+public class MetricsRegistry {
+
+    // timed by the app
+    public static final String ANSWER = "answer"; // handling a tap on a guess button
+    public static final String PREPARE_QUESTION = "prepare_question"; // next question built off screen
+    public static final String SHOW_QUESTION = "show_question"; // prepared question swapped onto the views
+    public static final String QUESTION_TRANSITION = "question_transition"; // correct answer until the next question is revealed
+    public static final String RESET_QUIZ = "reset_quiz";
+    public static final String IMAGE_DECODE = "image_decode"; // on the decode thread
+    public static final String ANSWER_LATENCY = "answer_latency"; // timed mode, countdown start until the correct answer
+    // counted by the app
+    public static final String CORRECT_ANSWERS = "correct_answers";
+    public static final String WRONG_ANSWERS = "wrong_answers";
+    public static final String IMAGES_WAITED_FOR = "images_waited_for"; // question needed an image that was not decoded yet
+
+    public static final long NOT_TIMED = Long.MIN_VALUE; // from startTimer() while disabled
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile boolean isEnabled;
+
+    public MetricsRegistry(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public void setEnabled(boolean isEnabled) { // what was recorded stays
+        this.isEnabled = isEnabled;
+    }
+
+    // pass the result to stopTimer()
+    public long startTimer() {
+        return isEnabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    public void stopTimer(String histogramName, long startNanos) {
+        if (startNanos == NOT_TIMED || !isEnabled) {
+            return;
+        }
+        recordNanos(histogramName, System.nanoTime() - startNanos);
+    }
+
+    public void recordNanos(String histogramName, long nanos) {
+        if (!isEnabled) {
+            return;
+        }
+        LatencyHistogram histogram = histograms.get(histogramName);
+        if (histogram == null) {
+            histograms.putIfAbsent(histogramName, new LatencyHistogram()); // first use only
+            histogram = histograms.get(histogramName);
+        }
+        histogram.record(nanos);
+    }
+
+    public void increment(String counterName) {
+        if (!isEnabled) {
+            return;
+        }
+        LongAdder counter = counters.get(counterName);
+        if (counter == null) {
+            counters.putIfAbsent(counterName, new LongAdder());
+            counter = counters.get(counterName);
+        }
+        counter.increment();
+    }
+
+    public long getCount(String counterName) {
+        LongAdder counter = counters.get(counterName);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public LatencyHistogram getHistogram(String histogramName) { // null if nothing was recorded
+        return histograms.get(histogramName);
+    }
+
+    public void reset() {
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    // one line per metric sorted by name, ms for the histograms, for the debug screen
+    public String toReadableString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            builder.append(String.format(Locale.US, "%s: %d\n", counter.getKey(), counter.getValue().sum()));
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            builder.append(String.format(Locale.US, "%s: n=%d p50 %.2f p90 %.2f p99 %.2f max %.2f ms\n", entry.getKey(),
+                    histogram.getCount(), histogram.getValueAtPercentile(0.5) / 1e6, histogram.getValueAtPercentile(0.9) / 1e6,
+                    histogram.getValueAtPercentile(0.99) / 1e6, histogram.getMaxNanos() / 1e6));
+        }
+        return builder.toString();
+    }
+
+    // machine readable dump, histogram values in ns
+    public String toJson() {
+        StringBuilder builder = new StringBuilder("{\"enabled\":").append(isEnabled).append(",\"counters\":{");
+        boolean isFirst = true;
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            if (!isFirst) {
+                builder.append(',');
+            }
+            isFirst = false;
+            builder.append('"').append(counter.getKey()).append("\":").append(counter.getValue().sum());
+        }
+        builder.append("},\"histograms\":{");
+        isFirst = true;
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            if (!isFirst) {
+                builder.append(',');
+            }
+            isFirst = false;
+            LatencyHistogram histogram = entry.getValue();
+            builder.append('"').append(entry.getKey()).append("\":{")
+                    .append("\"count\":").append(histogram.getCount())
+                    .append(",\"meanNanos\":").append(histogram.getMeanNanos())
+                    .append(",\"p50Nanos\":").append(histogram.getValueAtPercentile(0.5))
+                    .append(",\"p90Nanos\":").append(histogram.getValueAtPercentile(0.9))
+                    .append(",\"p99Nanos\":").append(histogram.getValueAtPercentile(0.99))
+                    .append(",\"p999Nanos\":").append(histogram.getValueAtPercentile(0.999))
+                    .append(",\"maxNanos\":").append(histogram.getMaxNanos())
+                    .append('}');
+        }
+        return builder.append("}}").toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.prakriti.animalquizapp.core;
+
+// countdown of the question on screen in timed mode, on System.nanoTime() timestamps passed in by the caller
+// monotonic, so clock changes do not touch it, & time only counts while running - a question paused in the background is not lost
+public class QuestionTimer {
+
+    private long timeLimitNanos;
+    private long elapsedBeforeNanos; // run time up to the last pause
+    private long runningSinceNanos; // last start or resume, valid while running
+    private boolean isStarted, isRunning; // started -> question is being timed, running -> & not paused
+
+    public QuestionTimer(long timeLimitNanos) {
+        this.timeLimitNanos = timeLimitNanos;
+    }
+
+    public long getTimeLimitNanos() {
+        return timeLimitNanos;
+    }
+
+    public void setTimeLimitNanos(long timeLimitNanos) { // a question being timed now counts against the new limit too
+        this.timeLimitNanos = timeLimitNanos;
+    }
+
+    public void start(long nowNanos) {
+        elapsedBeforeNanos = 0;
+        runningSinceNanos = nowNanos;
+        isStarted = true;
+        isRunning = true;
+    }
+
+    public void pause(long nowNanos) {
+        if (!isRunning) {
+            return;
+        }
+        elapsedBeforeNanos += Math.max(0, nowNanos - runningSinceNanos);
+        isRunning = false;
+    }
+
+    public void resume(long nowNanos) {
+        if (!isStarted || isRunning) {
+            return; // nothing being timed, or not paused
+        }
+        runningSinceNanos = nowNanos;
+        isRunning = true;
+    }
+
+    // ends timing the question, returns how long it ran - the answer latency
+    public long stop(long nowNanos) {
+        pause(nowNanos);
+        isStarted = false;
+        return elapsedBeforeNanos;
+    }
+
+    public boolean isStarted() {
+        return isStarted;
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    // nowNanos may be a little before the start, e.g. the time of a frame that began before it
+    public long getElapsedNanos(long nowNanos) {
+        return isRunning ? elapsedBeforeNanos + Math.max(0, nowNanos - runningSinceNanos) : elapsedBeforeNanos;
+    }
+
+    public long getRemainingNanos(long nowNanos) {
+        return Math.max(0, timeLimitNanos - getElapsedNanos(nowNanos));
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return isStarted && getElapsedNanos(nowNanos) >= timeLimitNanos;
+    }
+}
@@ -0,0 +1,364 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+// state & rules of one quiz - which animals are asked, options per question, answer checking & score
+// has no Android dependencies, MainFragment only renders what it says
+public class QuizEngine {
+
+    public static final int DEFAULT_NUM_OF_QUESTIONS = 10;
+
+    public enum AnswerResult {
+        WRONG, // question stays, guess is counted
+        CORRECT, // move on to the next question
+        QUIZ_FINISHED // last question answered correctly
+    }
+
+    // progress of a quiz, by animal name so it can be restored into a catalog built again, e.g. after process death
+    public static class Snapshot {
+        public final String[] animalNames; // questions in order
+        public final int numOfCorrectAnswers, numOfGuesses, numOfGuessesForQuestion;
+
+        public Snapshot(String[] animalNames, int numOfCorrectAnswers, int numOfGuesses, int numOfGuessesForQuestion) {
+            this.animalNames = animalNames;
+            this.numOfCorrectAnswers = numOfCorrectAnswers;
+            this.numOfGuesses = numOfGuesses;
+            this.numOfGuessesForQuestion = numOfGuessesForQuestion;
+        }
+    }
+
+    private final AnimalSampler animalSampler; // picks the distinct animals for the quiz
+    private final DistractorPicker distractorPicker; // picks the wrong answers for each question
+    private final RandomSource random;
+    private boolean isAdaptive = false;
+    private AdaptiveDifficulty adaptiveDifficulty; // when adaptive, picks animals & wrong answers by the player's mistakes
+
+    private AnimalCatalog animalCatalog;
+    private Collection<String> animalTypesInQuiz = Collections.emptySet();
+    private int numOfQuestionsWanted = DEFAULT_NUM_OF_QUESTIONS;
+    private int numOfOptionsWanted = 4; // same as the default in quiz_preferences.xml
+
+    private int[] quizAnimalIds = new int[DEFAULT_NUM_OF_QUESTIONS]; // ids for the questions, in order
+    private int numOfQuestionsInQuiz; // numOfQuestionsWanted, or fewer if not enough animals of the selected types
+    private int numOfGuesses, numOfCorrectAnswers;
+    private int numOfGuessesForQuestion, numOfGuessesForLastQuestion; // guesses on the current & on the last answered question
+
+    private int[] optionIds = new int[numOfOptionsWanted]; // animal ids on the guess buttons, reused for every question
+    private int numOfOptions; // options in the current question
+    private int correctOptionIndex = -1;
+
+    public QuizEngine(RandomSource random) { // RandomSources.seeded() for repeatable quizzes
+        this.random = random;
+        animalSampler = new AnimalSampler(random);
+        distractorPicker = new DistractorPicker(random);
+    }
+
+    public void setAnimalCatalog(AnimalCatalog animalCatalog) {
+        this.animalCatalog = animalCatalog;
+        adaptiveDifficulty = isAdaptive ? new AdaptiveDifficulty(random, animalCatalog.size()) : null; // ids of the old catalog mean nothing now
+    }
+
+    // swaps in a catalog that grew, e.g. by an animal pack - every animal of the current catalog must keep its id in it
+    // the running quiz & the adaptive stats carry on, new animals of types in the quiz can be asked & shown from now on
+    public void extendAnimalCatalog(AnimalCatalog biggerCatalog) {
+        if (animalCatalog == null) {
+            setAnimalCatalog(biggerCatalog);
+            return;
+        }
+        int oldSize = animalCatalog.size();
+        animalCatalog = biggerCatalog;
+        distractorPicker.ensureCapacity(biggerCatalog.size());
+        if (adaptiveDifficulty != null) {
+            adaptiveDifficulty.ensureCapacity(biggerCatalog.size());
+        }
+        if (!isQuizInProgress()) {
+            return; // next reset picks them up
+        }
+        boolean isPoolChanged = false;
+        for (int animalId = oldSize; animalId < biggerCatalog.size(); animalId++) {
+            if (animalTypesInQuiz.contains(biggerCatalog.getAnimalType(animalId))) {
+                distractorPicker.addToPool(animalId);
+                if (adaptiveDifficulty != null) {
+                    adaptiveDifficulty.addToPool(animalId);
+                }
+                isPoolChanged = true;
+            }
+        }
+        if (isPoolChanged && numOfQuestionsInQuiz < numOfQuestionsWanted) {
+            replaceUpcomingQuestions(); // quiz was cut short for lack of animals, top it up
+        }
+    }
+
+    // animals missed before are asked more often & the animals mixed up with them are shown next to them
+    // takes effect on the next reset, otherwise animals & wrong answers are picked uniformly
+    public void setAdaptiveDifficulty(boolean isAdaptive) {
+        this.isAdaptive = isAdaptive;
+        if (!isAdaptive) {
+            adaptiveDifficulty = null;
+        }
+        else if (adaptiveDifficulty == null && animalCatalog != null) {
+            adaptiveDifficulty = new AdaptiveDifficulty(random, animalCatalog.size());
+        }
+    }
+
+    public AdaptiveDifficulty getAdaptiveDifficulty() { // null unless adaptive
+        return adaptiveDifficulty;
+    }
+
+    public AnimalCatalog getAnimalCatalog() {
+        return animalCatalog;
+    }
+
+    public boolean hasAnimalCatalog() {
+        return animalCatalog != null;
+    }
+
+    public void setAnimalTypes(Collection<String> animalTypesInQuiz) { // takes effect on the next reset
+        this.animalTypesInQuiz = new HashSet<>(animalTypesInQuiz); // preference sets must not be kept & modified
+    }
+
+    // applies a change of animal types to the running quiz without losing progress
+    // wrong answer pool is patched in place, upcoming questions of removed types are swapped for animals of the new selection
+    public void changeAnimalTypes(Collection<String> newAnimalTypes) {
+        if (!isQuizInProgress()) {
+            setAnimalTypes(newAnimalTypes); // nothing running to patch, next reset uses them
+            return;
+        }
+        for (String animalType : animalCatalog.getAnimalTypes()) {
+            boolean wasInQuiz = animalTypesInQuiz.contains(animalType);
+            boolean isInQuiz = newAnimalTypes.contains(animalType);
+            if (wasInQuiz == isInQuiz) {
+                continue; // unchanged type, nothing to patch
+            }
+            for (int animalId : animalCatalog.getAnimalIdsOfType(animalType)) {
+                if (isInQuiz) {
+                    distractorPicker.addToPool(animalId);
+                    if (adaptiveDifficulty != null) {
+                        adaptiveDifficulty.addToPool(animalId);
+                    }
+                }
+                else {
+                    distractorPicker.removeFromPool(animalId);
+                    if (adaptiveDifficulty != null) {
+                        adaptiveDifficulty.removeFromPool(animalId);
+                    }
+                }
+            }
+        }
+        setAnimalTypes(newAnimalTypes);
+        replaceUpcomingQuestions();
+    }
+
+    // applies a change of quiz length to the running quiz, questions are added or dropped at the end
+    // there is always at least one question left, so a quiz in progress does not end without its last answer
+    public void changeNumOfQuestions(int numOfQuestionsWanted) {
+        setNumOfQuestions(numOfQuestionsWanted);
+        if (isQuizInProgress()) {
+            replaceUpcomingQuestions();
+        }
+    }
+
+    private void replaceUpcomingQuestions() {
+        // question on screen stays, unless it is already answered & waiting for the next one
+        int firstUpcoming = isQuestionInProgress() ? numOfCorrectAnswers + 1 : numOfCorrectAnswers;
+        int numOfQuestionsTarget = Math.max(numOfQuestionsWanted, numOfCorrectAnswers + 1);
+        int numOfQuestionsKept = firstUpcoming;
+        for (int questionIndex = firstUpcoming; questionIndex < numOfQuestionsInQuiz && numOfQuestionsKept < numOfQuestionsTarget; questionIndex++) {
+            int animalId = quizAnimalIds[questionIndex];
+            if (animalTypesInQuiz.contains(animalCatalog.getAnimalType(animalId))) {
+                quizAnimalIds[numOfQuestionsKept++] = animalId; // keep order of the remaining questions
+            }
+        }
+        numOfQuestionsInQuiz = numOfQuestionsKept;
+        int numOfQuestionsNeeded = numOfQuestionsTarget - numOfQuestionsKept;
+        if (numOfQuestionsNeeded <= 0) {
+            return;
+        }
+        if (adaptiveDifficulty != null) { // questions kept so far are left out by being in front
+            numOfQuestionsInQuiz += adaptiveDifficulty.sampleQuestions(numOfQuestionsNeeded, quizAnimalIds, numOfQuestionsKept);
+            return;
+        }
+        // candidates -> animals of the selected types that are not asked in this quiz already
+        boolean[] isInQuiz = new boolean[animalCatalog.size()];
+        for (int questionIndex = 0; questionIndex < numOfQuestionsKept; questionIndex++) {
+            isInQuiz[quizAnimalIds[questionIndex]] = true;
+        }
+        int[] availableAnimalIds = animalCatalog.getAnimalIdsForTypes(animalTypesInQuiz);
+        int numOfCandidates = 0;
+        for (int animalId : availableAnimalIds) {
+            if (!isInQuiz[animalId]) {
+                availableAnimalIds[numOfCandidates++] = animalId;
+            }
+        }
+        animalSampler.setPool(availableAnimalIds, numOfCandidates); // copied into the sampler's own array, no trimmed copy needed
+        int numOfNewQuestions = animalSampler.sample(numOfQuestionsNeeded, quizAnimalIds, numOfQuestionsKept); // after the kept ones
+        numOfQuestionsInQuiz = numOfQuestionsKept + numOfNewQuestions; // shorter quiz if the new types run out
+    }
+
+    // re-picks the options of the question on screen, e.g. after the number of options changed
+    // returns false if there is no unanswered question to refresh
+    public boolean refreshOptions() {
+        if (!isQuestionInProgress()) {
+            return false;
+        }
+        startQuestion();
+        return true;
+    }
+
+    public boolean isQuestionInProgress() { // question shown & not answered correctly yet
+        return correctOptionIndex >= 0;
+    }
+
+    public boolean isQuizInProgress() { // started & has questions left
+        return animalCatalog != null && numOfCorrectAnswers < numOfQuestionsInQuiz;
+    }
+
+    public void setNumOfOptions(int numOfOptionsWanted) { // takes effect on the next question
+        this.numOfOptionsWanted = numOfOptionsWanted;
+        if (optionIds.length < numOfOptionsWanted) {
+            optionIds = new int[numOfOptionsWanted]; // only allocated when the setting grows
+        }
+    }
+
+    public void setNumOfQuestions(int numOfQuestionsWanted) { // takes effect on the next reset
+        this.numOfQuestionsWanted = numOfQuestionsWanted;
+        if (quizAnimalIds.length < numOfQuestionsWanted) {
+            quizAnimalIds = Arrays.copyOf(quizAnimalIds, numOfQuestionsWanted); // questions of a running quiz are kept
+        }
+    }
+
+    // starts a new quiz with the selected animal types, returns false if there are no animals to ask about
+    public boolean reset() {
+        numOfGuesses = 0;
+        numOfCorrectAnswers = 0;
+        numOfGuessesForQuestion = 0;
+        numOfGuessesForLastQuestion = 0;
+        correctOptionIndex = -1;
+        int[] availableAnimalIds = animalCatalog.getAnimalIdsForTypes(animalTypesInQuiz); // index lookup, no asset listing
+        distractorPicker.setPool(availableAnimalIds, animalCatalog.size());
+        // distinct animals, so questions are not repeated
+        if (adaptiveDifficulty != null) {
+            adaptiveDifficulty.setPool(availableAnimalIds);
+            numOfQuestionsInQuiz = adaptiveDifficulty.sampleQuestions(numOfQuestionsWanted, quizAnimalIds, 0);
+        }
+        else {
+            animalSampler.setPool(availableAnimalIds);
+            numOfQuestionsInQuiz = animalSampler.sample(numOfQuestionsWanted, quizAnimalIds);
+        }
+        return numOfQuestionsInQuiz > 0;
+    }
+
+    // picks the options for the current question, correct one on a random button
+    public void startQuestion() {
+        numOfOptions = distractorPicker.getNumOfOptions(numOfOptionsWanted);
+        correctOptionIndex = adaptiveDifficulty != null
+                ? adaptiveDifficulty.pickOptions(getCurrentAnimalId(), numOfOptions, optionIds)
+                : distractorPicker.pickOptions(getCurrentAnimalId(), numOfOptionsWanted, optionIds);
+    }
+
+    public AnswerResult checkAnswer(int optionIndex) {
+        ++numOfGuesses; // guesses made by user, used for calculating score
+        ++numOfGuessesForQuestion;
+        if (optionIndex != correctOptionIndex) {
+            if (adaptiveDifficulty != null) {
+                adaptiveDifficulty.recordWrongGuess(getCurrentAnimalId(), optionIds[optionIndex]);
+            }
+            return AnswerResult.WRONG;
+        }
+        if (adaptiveDifficulty != null) {
+            adaptiveDifficulty.recordQuestionAnswered(getCurrentAnimalId(), numOfGuessesForQuestion);
+        }
+        ++numOfCorrectAnswers; // for checking end of quiz
+        numOfGuessesForLastQuestion = numOfGuessesForQuestion;
+        numOfGuessesForQuestion = 0;
+        correctOptionIndex = -1; // no more guesses for this question
+        return isQuizFinished() ? AnswerResult.QUIZ_FINISHED : AnswerResult.CORRECT;
+    }
+
+    public Snapshot saveSnapshot() {
+        String[] animalNames = new String[numOfQuestionsInQuiz];
+        for (int questionIndex = 0; questionIndex < numOfQuestionsInQuiz; questionIndex++) {
+            animalNames[questionIndex] = animalCatalog.getAnimalName(quizAnimalIds[questionIndex]);
+        }
+        return new Snapshot(animalNames, numOfCorrectAnswers, numOfGuesses, numOfGuessesForQuestion);
+    }
+
+    // continues a saved quiz with the animal types set now, call startQuestion() next
+    // returns false if it cannot be continued, e.g. it was finished or one of its animals is gone
+    public boolean restoreSnapshot(Snapshot snapshot) {
+        int numOfQuestions = snapshot.animalNames.length;
+        if (snapshot.numOfCorrectAnswers >= numOfQuestions) {
+            return false;
+        }
+        int[] animalIds = new int[Math.max(numOfQuestions, quizAnimalIds.length)];
+        for (int questionIndex = 0; questionIndex < numOfQuestions; questionIndex++) {
+            animalIds[questionIndex] = animalCatalog.findAnimalId(snapshot.animalNames[questionIndex]);
+            if (animalIds[questionIndex] < 0) {
+                return false;
+            }
+        }
+        quizAnimalIds = animalIds;
+        numOfQuestionsInQuiz = numOfQuestions;
+        numOfCorrectAnswers = snapshot.numOfCorrectAnswers;
+        numOfGuesses = snapshot.numOfGuesses;
+        numOfGuessesForQuestion = snapshot.numOfGuessesForQuestion;
+        numOfGuessesForLastQuestion = 0;
+        correctOptionIndex = -1;
+        int[] availableAnimalIds = animalCatalog.getAnimalIdsForTypes(animalTypesInQuiz);
+        distractorPicker.setPool(availableAnimalIds, animalCatalog.size());
+        if (adaptiveDifficulty != null) {
+            adaptiveDifficulty.setPool(availableAnimalIds);
+        }
+        return true;
+    }
+
+    public boolean isQuizFinished() {
+        return numOfQuestionsInQuiz > 0 && numOfCorrectAnswers == numOfQuestionsInQuiz;
+    }
+
+    public int getCurrentAnimalId() {
+        return quizAnimalIds[numOfCorrectAnswers]; // correct answers so far -> index of current question
+    }
+
+    // id of the animal asked questionsAhead questions after the current one, -1 if the quiz ends before that
+    public int getUpcomingAnimalId(int questionsAhead) {
+        int questionIndex = numOfCorrectAnswers + questionsAhead;
+        return questionIndex < numOfQuestionsInQuiz ? quizAnimalIds[questionIndex] : -1;
+    }
+
+    public int getQuestionNumber() { // 1 based, for display
+        return numOfCorrectAnswers + 1;
+    }
+
+    public int getNumOfQuestionsInQuiz() {
+        return numOfQuestionsInQuiz;
+    }
+
+    public int getNumOfOptions() {
+        return numOfOptions;
+    }
+
+    public int getOptionId(int optionIndex) {
+        return optionIds[optionIndex];
+    }
+
+    public int getNumOfGuesses() {
+        return numOfGuesses;
+    }
+
+    public int getNumOfGuessesForLastQuestion() { // 1 if it was answered on the first guess
+        return numOfGuessesForLastQuestion;
+    }
+
+    public int getNumOfCorrectAnswers() {
+        return numOfCorrectAnswers;
+    }
+
+    // percentage, 100 when every question was answered on the first guess
+    public double getScore() {
+        return numOfGuesses == 0 ? 0 : 100 * numOfQuestionsInQuiz / (double) numOfGuesses;
+    }
+}
@@ -0,0 +1,290 @@
+package com.prakriti.animalquizapp.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// finished quizzes & the outcome of every question, kept in two append-only files in one directory
+// records are collected in memory & written in batches on the store's own thread, callers never wait for the disk
+// results are fixed size records, so a page of history is read without loading the rest
+public class QuizHistoryStore {
+
+    public static final long DEFAULT_BATCH_DELAY_MS = 2_000; // answers within this time are written together
+    public static final long RETRY_DELAY_MS = 10_000; // a batch that could not be written is tried again after this
+
+    private static final String RESULTS_FILE = "results.bin";
+    private static final String QUESTIONS_FILE = "questions.log"; // one tab separated line per answered question
+    private static final int RESULT_RECORD_BYTES = 32; // quizId, finishedAt, numOfQuestions, numOfGuesses, score
+
+    public interface ResultsCallback { // called on the store's thread
+        void onResultsRead(List<QuizResult> results, int totalNumOfResults);
+        void onError(IOException e); // history could not be read, not the same as no history
+    }
+
+    public interface ErrorListener { // called on the store's thread
+        void onWriteFailed(IOException e); // records are kept & written with the next batch
+        void onRecordsLost(IOException e, int numOfQuestions, int numOfResults); // write failed after close(), nothing will retry it
+    }
+
+    private final File resultsFile, questionsFile;
+    private final long batchDelayMillis;
+    private final ScheduledThreadPoolExecutor writeExecutor = new ScheduledThreadPoolExecutor(1);
+    private volatile ErrorListener errorListener;
+
+    // guarded by this
+    private StringBuilder pendingQuestionLines = new StringBuilder();
+    private List<QuizResult> pendingResults = new ArrayList<>();
+    private boolean isWriteScheduled = false;
+    private ScheduledFuture<?> scheduledWrite;
+
+    public QuizHistoryStore(File directory, long batchDelayMillis) {
+        this.resultsFile = new File(directory, RESULTS_FILE);
+        this.questionsFile = new File(directory, QUESTIONS_FILE);
+        this.batchDelayMillis = batchDelayMillis;
+        writeExecutor.setRemoveOnCancelPolicy(true);
+        writeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                open(directory);
+            }
+        });
+    }
+
+    public void setErrorListener(ErrorListener errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    private void open(File directory) { // store thread
+        directory.mkdirs();
+        try (RandomAccessFile results = new RandomAccessFile(resultsFile, "rw")) {
+            long completeLength = results.length() - results.length() % RESULT_RECORD_BYTES;
+            if (completeLength != results.length()) {
+                results.setLength(completeLength); // last write was cut off by the process dying, drop the partial record
+            }
+        }
+        catch (IOException e) {
+            reportWriteFailed(e);
+        }
+    }
+
+    private void reportWriteFailed(IOException e) { // store thread
+        ErrorListener listener = errorListener;
+        if (listener != null) {
+            listener.onWriteFailed(e);
+        }
+    }
+
+    public void recordQuestion(long quizId, int questionNumber, String animalName, int numOfGuesses, long answeredAtMillis) {
+        String line = String.format(Locale.US, "%d\t%d\t%s\t%d\t%d\n", quizId, questionNumber, animalName, numOfGuesses, answeredAtMillis);
+        synchronized (this) {
+            pendingQuestionLines.append(line);
+            scheduleWrite(batchDelayMillis);
+        }
+    }
+
+    public void recordResult(QuizResult result) {
+        synchronized (this) {
+            pendingResults.add(result);
+            scheduleWrite(batchDelayMillis);
+        }
+    }
+
+    // writes what is pending now instead of waiting for the batch, e.g. when the app goes to the background
+    public synchronized void flush() {
+        if (scheduledWrite != null) {
+            scheduledWrite.cancel(false); // batch delay is skipped, a write that already started finishes
+        }
+        isWriteScheduled = false;
+        if (pendingQuestionLines.length() > 0 || !pendingResults.isEmpty()) {
+            scheduleWrite(0);
+        }
+    }
+
+    // flushes & stops the store's thread once everything is written, the store cannot be used after this
+    // a batch waiting for its retry is tried once more right away, if that fails too the records are reported as lost
+    public synchronized void close() { // locked, so a failing write either sees the store open & is flushed, or sees it closed
+        flush();
+        writeExecutor.shutdown();
+    }
+
+    boolean awaitClosed(long timeoutMillis) throws InterruptedException { // tests
+        return writeExecutor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduleWrite(long delayMillis) { // holding the lock
+        if (isWriteScheduled || writeExecutor.isShutdown()) {
+            return;
+        }
+        isWriteScheduled = true;
+        scheduledWrite = writeExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                writePending();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void writePending() { // store thread
+        StringBuilder questionLines;
+        List<QuizResult> results;
+        synchronized (this) {
+            if (scheduledWrite != null) {
+                scheduledWrite.cancel(false); // called early by a read, the batch it was waiting for is written now
+            }
+            isWriteScheduled = false;
+            questionLines = pendingQuestionLines;
+            results = pendingResults;
+            pendingQuestionLines = new StringBuilder();
+            pendingResults = new ArrayList<>();
+        }
+        IOException failure = null;
+        if (questionLines.length() > 0) {
+            try {
+                writeQuestionLines(questionLines);
+                questionLines.setLength(0);
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (!results.isEmpty()) {
+            try {
+                writeResults(results);
+                results.clear();
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure == null) {
+            return;
+        }
+        boolean isRetried;
+        synchronized (this) { // unwritten records go back in front of anything recorded meanwhile
+            isRetried = !writeExecutor.isShutdown();
+            if (isRetried) {
+                pendingQuestionLines.insert(0, questionLines);
+                results.addAll(pendingResults);
+                pendingResults = results;
+                scheduleWrite(RETRY_DELAY_MS);
+            }
+        }
+        if (isRetried) {
+            reportWriteFailed(failure);
+            return;
+        }
+        ErrorListener listener = errorListener; // closed, this was the last try
+        if (listener != null) {
+            listener.onRecordsLost(failure, countLines(questionLines), results.size());
+        }
+    }
+
+    private static int countLines(CharSequence lines) {
+        int numOfLines = 0;
+        for (int i = 0; i < lines.length(); i++) {
+            if (lines.charAt(i) == '\n') {
+                ++numOfLines;
+            }
+        }
+        return numOfLines;
+    }
+
+    private void writeQuestionLines(StringBuilder questionLines) throws IOException { // store thread
+        long lengthBefore = questionsFile.length();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(questionsFile, true), StandardCharsets.UTF_8)) {
+            writer.append(questionLines); // one write for the whole batch
+        }
+        catch (IOException e) {
+            truncate(questionsFile, lengthBefore); // so the retry does not write part of the batch twice
+            throw e;
+        }
+    }
+
+    private void writeResults(List<QuizResult> results) throws IOException { // store thread
+        long lengthBefore = resultsFile.length();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(resultsFile, true)))) {
+            for (QuizResult result : results) {
+                out.writeLong(result.getQuizId());
+                out.writeLong(result.getFinishedAtMillis());
+                out.writeInt(result.getNumOfQuestions());
+                out.writeInt(result.getNumOfGuesses());
+                out.writeDouble(result.getScore());
+            }
+        }
+        catch (IOException e) {
+            truncate(resultsFile, lengthBefore);
+            throw e;
+        }
+    }
+
+    private static void truncate(File file, long length) {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            if (out.length() > length) {
+                out.setLength(length);
+            }
+        }
+        catch (IOException e) {
+            // disk is failing anyway, the partial record check in open() covers results
+        }
+    }
+
+    // a page of results, newest first, read on the store's thread after anything still pending is written
+    public void readResults(final int offset, final int limit, final ResultsCallback callback) {
+        writeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                writePending();
+                List<QuizResult> results;
+                int totalNumOfResults;
+                try {
+                    totalNumOfResults = getNumOfResults();
+                    results = readResultsNow(offset, limit);
+                }
+                catch (IOException e) {
+                    callback.onError(e);
+                    return;
+                }
+                callback.onResultsRead(results, totalNumOfResults);
+            }
+        });
+    }
+
+    int getNumOfResults() { // store thread
+        return (int) (resultsFile.length() / RESULT_RECORD_BYTES);
+    }
+
+    // offset -> number of newest results to skip, only the records of the page are read
+    List<QuizResult> readResultsNow(int offset, int limit) throws IOException { // store thread
+        int numOfResults = getNumOfResults();
+        int last = numOfResults - offset; // exclusive, counted from the oldest
+        int first = Math.max(0, last - limit);
+        List<QuizResult> page = new ArrayList<>();
+        if (last <= first) {
+            return page;
+        }
+        byte[] records = new byte[(last - first) * RESULT_RECORD_BYTES];
+        try (RandomAccessFile results = new RandomAccessFile(resultsFile, "r")) {
+            results.seek((long) first * RESULT_RECORD_BYTES);
+            results.readFully(records);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        for (int record = last - first - 1; record >= 0; record--) { // newest first
+            buffer.position(record * RESULT_RECORD_BYTES);
+            page.add(new QuizResult(buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getDouble()));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,38 @@
+package com.prakriti.animalquizapp.core;
+
+// final score of one finished quiz, as kept by QuizHistoryStore
+public final class QuizResult {
+
+    private final long quizId; // start time of the quiz in ms, unique per quiz
+    private final long finishedAtMillis;
+    private final int numOfQuestions, numOfGuesses;
+    private final double score; // percentage, same as QuizEngine.getScore()
+
+    public QuizResult(long quizId, long finishedAtMillis, int numOfQuestions, int numOfGuesses, double score) {
+        this.quizId = quizId;
+        this.finishedAtMillis = finishedAtMillis;
+        this.numOfQuestions = numOfQuestions;
+        this.numOfGuesses = numOfGuesses;
+        this.score = score;
+    }
+
+    public long getQuizId() {
+        return quizId;
+    }
+
+    public long getFinishedAtMillis() {
+        return finishedAtMillis;
+    }
+
+    public int getNumOfQuestions() {
+        return numOfQuestions;
+    }
+
+    public int getNumOfGuesses() {
+        return numOfGuesses;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
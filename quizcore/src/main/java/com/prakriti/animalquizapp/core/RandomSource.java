@@ -0,0 +1,10 @@
+package com.prakriti.animalquizapp.core;
+
+// where the quiz gets its random numbers from, see RandomSources for the implementations
+// not thread safe - give each thread its own source with split()
+public interface RandomSource {
+
+    int nextInt(int bound); // 0 (incl) to bound (excl)
+
+    RandomSource split(); // independent source for another thread or player
+}
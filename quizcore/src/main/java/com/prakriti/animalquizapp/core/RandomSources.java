@@ -0,0 +1,61 @@
+package com.prakriti.animalquizapp.core;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+// a quiz game does not need cryptographic strength, so the default is a fast SplittableRandom
+// seeded() gives the same quiz on every run for tests & benchmarks, secure() is there if ever needed
+public final class RandomSources {
+
+    private RandomSources() {}
+
+    public static RandomSource fast() { // no entropy gathering, cheap to create
+        return new SplittableSource(new SplittableRandom());
+    }
+
+    public static RandomSource seeded(long seed) { // deterministic replays
+        return new SplittableSource(new SplittableRandom(seed));
+    }
+
+    public static RandomSource secure() { // opt in, seeding can block & is slow on first use
+        return new SecureSource(new SecureRandom());
+    }
+
+    private static final class SplittableSource implements RandomSource {
+
+        private final SplittableRandom random;
+
+        SplittableSource(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        @Override
+        public RandomSource split() {
+            return new SplittableSource(random.split()); // stays deterministic when seeded
+        }
+    }
+
+    private static final class SecureSource implements RandomSource {
+
+        private final SecureRandom random;
+
+        SecureSource(SecureRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        @Override
+        public RandomSource split() {
+            return new SecureSource(new SecureRandom());
+        }
+    }
+}
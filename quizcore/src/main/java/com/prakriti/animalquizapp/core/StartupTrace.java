@@ -0,0 +1,125 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// named spans for the phases of a cold start, times are relative to when the trace was created
+// spans can begin & end on any thread, each span is recorded once - later begin / end calls are ignored
+public class StartupTrace {
+
+    // phases recorded by the app
+    public static final String PREFS = "prefs";
+    public static final String APPLY_SETTINGS = "apply_settings";
+    public static final String FONTS = "fonts";
+    public static final String CATALOG_SCAN = "catalog_scan";
+    public static final String FIRST_DECODE = "first_decode";
+    public static final String FIRST_FRAME = "first_frame";
+
+    public interface Clock {
+        long nanoTime();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime(); // monotonic
+        }
+    };
+
+    private final Clock clock;
+    private final long originNanos;
+    private final LinkedHashMap<String, long[]> spans = new LinkedHashMap<>(); // name -> {start, end}, end is -1 while open
+
+    public StartupTrace() {
+        this(SYSTEM_CLOCK);
+    }
+
+    public StartupTrace(Clock clock) { // tests pass a fake clock
+        this.clock = clock;
+        this.originNanos = clock.nanoTime();
+    }
+
+    public synchronized void begin(String spanName) {
+        if (!spans.containsKey(spanName)) {
+            spans.put(spanName, new long[] {clock.nanoTime() - originNanos, -1});
+        }
+    }
+
+    public synchronized void end(String spanName) {
+        long[] span = spans.get(spanName);
+        if (span != null && span[1] < 0) {
+            span[1] = clock.nanoTime() - originNanos;
+        }
+    }
+
+    public synchronized boolean isComplete(String spanName) {
+        long[] span = spans.get(spanName);
+        return span != null && span[1] >= 0;
+    }
+
+    // -1 if the span has not ended yet
+    public synchronized long getDurationNanos(String spanName) {
+        long[] span = spans.get(spanName);
+        return span == null || span[1] < 0 ? -1 : span[1] - span[0];
+    }
+
+    // time from the start of the trace until the span ended, -1 if it has not
+    public synchronized long getEndNanos(String spanName) {
+        long[] span = spans.get(spanName);
+        return span == null ? -1 : span[1];
+    }
+
+    // budgets -> span name to max duration in ms, returns one message per span that is over budget or missing
+    public synchronized List<String> findBudgetViolations(Map<String, Long> budgetsMillis) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Long> budget : budgetsMillis.entrySet()) {
+            long durationNanos = getDurationNanos(budget.getKey());
+            if (durationNanos < 0) {
+                violations.add(budget.getKey() + " was not recorded");
+            }
+            else if (durationNanos > budget.getValue() * 1_000_000L) {
+                violations.add(String.format(Locale.US, "%s took %.1f ms, budget is %d ms",
+                        budget.getKey(), durationNanos / 1e6, budget.getValue()));
+            }
+        }
+        return violations;
+    }
+
+    // one line per span, for the debug screen
+    public synchronized String toReadableString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, long[]> span : spans.entrySet()) {
+            long[] times = span.getValue();
+            builder.append(String.format(Locale.US, "%-15s start %7.1f ms  ", span.getKey(), times[0] / 1e6));
+            if (times[1] < 0) {
+                builder.append("still running\n");
+            }
+            else {
+                builder.append(String.format(Locale.US, "took %7.1f ms\n", (times[1] - times[0]) / 1e6));
+            }
+        }
+        return builder.toString();
+    }
+
+    // machine readable dump, times in ns since the trace started, end is -1 for spans still running
+    public synchronized String toJson() {
+        StringBuilder builder = new StringBuilder("{\"spans\":[");
+        boolean isFirst = true;
+        for (Map.Entry<String, long[]> span : spans.entrySet()) {
+            if (!isFirst) {
+                builder.append(',');
+            }
+            isFirst = false;
+            long[] times = span.getValue();
+            builder.append("{\"name\":\"").append(span.getKey())
+                    .append("\",\"startNanos\":").append(times[0])
+                    .append(",\"endNanos\":").append(times[1])
+                    .append(",\"durationNanos\":").append(times[1] < 0 ? -1 : times[1] - times[0])
+                    .append('}');
+        }
+        return builder.append("]}").toString();
+    }
+}
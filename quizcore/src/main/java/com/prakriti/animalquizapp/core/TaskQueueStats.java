@@ -0,0 +1,75 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Locale;
+
+// counts for a queue of delayed tasks, e.g. the quiz transitions - how many are waiting & how late they ran
+// lateness -> time between when a task was due & when it actually ran, i.e. how long the thread was busy with other work
+public class TaskQueueStats {
+
+    private int queueDepth, maxQueueDepth;
+    private int numOfScheduled, numOfRun, numOfCancelled;
+    private long totalLatenessNanos, maxLatenessNanos;
+
+    public void onScheduled() {
+        ++numOfScheduled;
+        ++queueDepth;
+        maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+    }
+
+    public void onRun(long latenessNanos) {
+        --queueDepth;
+        ++numOfRun;
+        latenessNanos = Math.max(0, latenessNanos); // clocks differ a little, early is on time
+        totalLatenessNanos += latenessNanos;
+        maxLatenessNanos = Math.max(maxLatenessNanos, latenessNanos);
+    }
+
+    public void onCancelled() {
+        --queueDepth;
+        ++numOfCancelled;
+    }
+
+    public void reset() { // tasks still waiting stay counted in the depth
+        maxQueueDepth = queueDepth;
+        numOfScheduled = 0;
+        numOfRun = 0;
+        numOfCancelled = 0;
+        totalLatenessNanos = 0;
+        maxLatenessNanos = 0;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public int getNumOfScheduled() {
+        return numOfScheduled;
+    }
+
+    public int getNumOfRun() {
+        return numOfRun;
+    }
+
+    public int getNumOfCancelled() {
+        return numOfCancelled;
+    }
+
+    public long getAverageLatenessNanos() {
+        return numOfRun == 0 ? 0 : totalLatenessNanos / numOfRun;
+    }
+
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d run, %d cancelled, %d waiting (max %d), lateness avg %.1f ms, max %.1f ms",
+                numOfRun, numOfCancelled, queueDepth, maxQueueDepth,
+                getAverageLatenessNanos() / 1e6, maxLatenessNanos / 1e6);
+    }
+}
@@ -0,0 +1,65 @@
+package com.prakriti.animalquizapp.core;
+
+// score of a timed quiz, the points of a question fall off with how long the answer took
+// MAX_POINTS for an instant answer, linearly down to MIN_POINTS at the time limit & nothing after it,
+// divided by the guesses the question took - so a fast guess that was wrong still costs
+public class TimedScore {
+
+    public static final int MAX_POINTS = 100;
+    static final int MIN_POINTS = 10; // answered right before the time ran out
+
+    private int totalPoints;
+    private int numOfQuestions; // answered questions scored so far
+    private long totalLatencyNanos;
+
+    // latencyNanos -> shown until answered correctly, from QuestionTimer.stop()
+    public static int getPoints(long latencyNanos, long timeLimitNanos, int numOfGuesses) {
+        if (latencyNanos >= timeLimitNanos || numOfGuesses <= 0) {
+            return 0; // time ran out
+        }
+        long timeLeftNanos = timeLimitNanos - Math.max(0, latencyNanos);
+        int points = MIN_POINTS + (int) ((MAX_POINTS - MIN_POINTS) * timeLeftNanos / timeLimitNanos);
+        return points / numOfGuesses;
+    }
+
+    // returns the points of this answer
+    public int recordAnswer(long latencyNanos, long timeLimitNanos, int numOfGuesses) {
+        int points = getPoints(latencyNanos, timeLimitNanos, numOfGuesses);
+        totalPoints += points;
+        totalLatencyNanos += latencyNanos;
+        ++numOfQuestions;
+        return points;
+    }
+
+    public void reset() {
+        restore(0, 0, 0);
+    }
+
+    // from saved state, with the values of the getters below
+    public void restore(int totalPoints, int numOfQuestions, long totalLatencyNanos) {
+        this.totalPoints = totalPoints;
+        this.numOfQuestions = numOfQuestions;
+        this.totalLatencyNanos = totalLatencyNanos;
+    }
+
+    public int getTotalPoints() {
+        return totalPoints;
+    }
+
+    public int getNumOfQuestions() {
+        return numOfQuestions;
+    }
+
+    public long getTotalLatencyNanos() {
+        return totalLatencyNanos;
+    }
+
+    public long getAverageLatencyNanos() {
+        return numOfQuestions == 0 ? 0 : totalLatencyNanos / numOfQuestions;
+    }
+
+    // share of the points possible so far, same scale as QuizEngine.getScore()
+    public double getPercentage() {
+        return numOfQuestions == 0 ? 0 : 100.0 * totalPoints / (numOfQuestions * MAX_POINTS);
+    }
+}
@@ -0,0 +1,101 @@
+package com.prakriti.animalquizapp.core;
+
+import java.util.Arrays;
+
+// picks ids with probability weight / total weight, using a Fenwick tree over the weights
+// changing a weight & drawing an id both cost O(log n), so weights can follow every answer without rebuilding anything
+// the sum of all weights must stay below Integer.MAX_VALUE
+public class WeightedSampler {
+
+    private int[] weights; // id -> weight, 0 means never picked
+    private int[] tree; // Fenwick tree, 1 based, tree[i] = sum of weights (i - lowbit(i), i]
+    private int highestBit; // biggest power of two <= number of ids, start of the search
+    private int totalWeight;
+
+    public WeightedSampler(int numOfIds) {
+        weights = new int[numOfIds];
+        tree = new int[numOfIds + 1];
+        highestBit = numOfIds == 0 ? 0 : Integer.highestOneBit(numOfIds);
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    // room for ids below numOfIds, new ids start at weight 0 - the tree is rebuilt in O(n), weights are kept
+    public void ensureCapacity(int numOfIds) {
+        if (numOfIds <= weights.length) {
+            return;
+        }
+        weights = Arrays.copyOf(weights, numOfIds);
+        tree = new int[numOfIds + 1];
+        for (int i = 1; i < tree.length; i++) { // each node adds its finished sum to the node covering it
+            tree[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        highestBit = Integer.highestOneBit(numOfIds);
+    }
+
+    public int getWeight(int id) {
+        return weights[id];
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setWeight(int id, int weight) {
+        add(id, weight - weights[id]);
+        weights[id] = weight;
+    }
+
+    // id with probability weight / total weight, -1 if every weight is 0
+    public int sample(RandomSource random) {
+        if (totalWeight <= 0) {
+            return -1;
+        }
+        return find(random.nextInt(totalWeight));
+    }
+
+    // appends up to count distinct ids to sampledIds[offset ..], ids already in sampledIds[0 .. offset) are never picked
+    // picked ids are left out of the tree while sampling & put back afterwards, returns how many were appended
+    // ids in sampledIds[0 .. offset) must be distinct
+    public int sampleDistinct(RandomSource random, int count, int[] sampledIds, int offset) {
+        for (int i = 0; i < offset; i++) {
+            add(sampledIds[i], -weights[sampledIds[i]]);
+        }
+        int numOfSampled = 0;
+        while (numOfSampled < count && totalWeight > 0) {
+            int id = find(random.nextInt(totalWeight));
+            add(id, -weights[id]);
+            sampledIds[offset + numOfSampled++] = id;
+        }
+        for (int i = 0; i < offset + numOfSampled; i++) {
+            add(sampledIds[i], weights[sampledIds[i]]); // weights array still has them
+        }
+        return numOfSampled;
+    }
+
+    private void add(int id, int delta) {
+        totalWeight += delta;
+        for (int i = id + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // smallest id whose prefix sum of weights is > target, by walking down the tree
+    private int find(int target) {
+        int position = 0; // 1 based index of the last node whose prefix is <= target
+        for (int bit = highestBit; bit > 0; bit >>= 1) {
+            int next = position + bit;
+            if (next < tree.length && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        return position; // node position + 1 is the id's node, so the id is position itself
+    }
+}
@@ -0,0 +1,65 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveDifficultyTest {
+
+    @Test
+    public void missedAnimals_weightedUpAndAskedMoreOften() {
+        AdaptiveDifficulty difficulty = new AdaptiveDifficulty(RandomSources.seeded(5), 20);
+        difficulty.setPool(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}); // 10 - 19 are of another type
+        for (int round = 0; round < 6; round++) {
+            difficulty.recordQuestionAnswered(3, 3); // always missed
+            difficulty.recordQuestionAnswered(4, 1); // always right
+        }
+        assertEquals(3 * difficulty.getQuestionWeight(4), difficulty.getQuestionWeight(3)); // 16 + 64 * 7 / 8 vs 16 + 64 * 1 / 8
+        assertEquals(0, difficulty.getQuestionWeight(12));
+
+        int[] quizAnimalIds = new int[20];
+        int timesAskedMissed = 0, timesAskedKnown = 0;
+        for (int quiz = 0; quiz < 2_000; quiz++) {
+            assertEquals(10, difficulty.sampleQuestions(20, quizAnimalIds, 0)); // only the pool, each once
+            for (int question = 0; question < 2; question++) { // first two questions of the quiz
+                timesAskedMissed += quizAnimalIds[question] == 3 ? 1 : 0;
+                timesAskedKnown += quizAnimalIds[question] == 4 ? 1 : 0;
+            }
+        }
+        assertTrue(timesAskedMissed > 2 * timesAskedKnown);
+    }
+
+    @Test
+    public void confusedAnimal_alwaysShownAsWrongAnswer() {
+        AdaptiveDifficulty difficulty = new AdaptiveDifficulty(RandomSources.seeded(9), 50);
+        int[] pool = new int[50];
+        for (int animalId = 0; animalId < 50; animalId++) {
+            pool[animalId] = animalId;
+        }
+        difficulty.setPool(pool);
+        difficulty.recordWrongGuess(10, 11);
+        difficulty.recordWrongGuess(10, 12);
+        difficulty.recordWrongGuess(10, 12);
+        for (int other = 0; other < 40; other++) { // enough pairs for the count table to grow
+            difficulty.recordWrongGuess(other, 49 - other);
+        }
+        assertEquals(2, difficulty.getConfusionCount(10, 12));
+        assertEquals(1, difficulty.getConfusionCount(10, 11));
+        assertEquals(0, difficulty.getConfusionCount(12, 10));
+        assertEquals(12, difficulty.getMostConfusedWith(10));
+
+        int[] options = new int[4];
+        for (int question = 0; question < 50; question++) {
+            int correctIndex = difficulty.pickOptions(10, 4, options);
+            assertEquals(10, options[correctIndex]);
+            boolean isConfusedShown = false;
+            for (int i = 0; i < 4; i++) {
+                isConfusedShown |= options[i] == 12;
+                for (int j = i + 1; j < 4; j++) {
+                    assertNotEquals(options[i], options[j]);
+                }
+            }
+            assertTrue(isConfusedShown);
+        }
+    }
+}
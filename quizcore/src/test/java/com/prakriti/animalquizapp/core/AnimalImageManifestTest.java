@@ -0,0 +1,128 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class AnimalImageManifestTest {
+
+    private static final String MANIFEST = "# source\twidth\theight\tpath\n"
+            + "Wild_Animals/Wild_Animals-Bear.png\t214\t240\tWild_Animals/240/Wild_Animals-Bear.webp\n"
+            + "Wild_Animals/Wild_Animals-Bear.png\t428\t480\tWild_Animals/480/Wild_Animals-Bear.webp\n"
+            + "Wild_Animals/Wild_Animals-Bear.png\t571\t640\tWild_Animals/640/Wild_Animals-Bear.webp\n"
+            + "Domestic_Animals/Domestic_Animals-Cat.png\t240\t242\tDomestic_Animals/240/Domestic_Animals-Cat.webp\n";
+
+    @Test
+    public void pickVariant_smallestCoveringTheTarget() throws IOException {
+        AnimalImageManifest manifest = AnimalImageManifest.parse(new StringReader(MANIFEST));
+
+        assertEquals("Wild_Animals/240/Wild_Animals-Bear.webp", manifest.pickVariant("Wild_Animals/Wild_Animals-Bear.png", 200, 200).path);
+        assertEquals("Wild_Animals/480/Wild_Animals-Bear.webp", manifest.pickVariant("Wild_Animals/Wild_Animals-Bear.png", 300, 450).path);
+        assertEquals(571, manifest.pickVariant("Wild_Animals/Wild_Animals-Bear.png", 1080, 1200).width); // biggest there is
+        assertNull(manifest.pickVariant("Wild_Animals/Wild_Animals-Lion.png", 200, 200));
+    }
+
+    @Test
+    public void getFileNames_sameAsFolderListing() throws IOException {
+        AnimalImageManifest manifest = AnimalImageManifest.parse(new StringReader(MANIFEST));
+
+        assertArrayEquals(new String[] {"Wild_Animals-Bear.png"}, manifest.getFileNames("Wild_Animals"));
+        assertArrayEquals(new String[] {"Domestic_Animals-Cat.png"}, manifest.getFileNames("Domestic_Animals"));
+    }
+
+    @Test
+    public void readBundle_indexOnlyAndSlicesImages() throws IOException {
+        // same layout as writeAnimalBundle in app/animal-images.gradle
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        indexOut.writeInt(1); // types
+        writeString(indexOut, "Wild_Animals");
+        indexOut.writeInt(1); // animals
+        indexOut.writeShort(0);
+        writeString(indexOut, "Wild_Animals-Bear");
+        indexOut.writeByte(2);
+        indexOut.writeShort(214);
+        indexOut.writeShort(240);
+        indexOut.writeInt(0);
+        indexOut.writeInt(3);
+        indexOut.writeShort(571);
+        indexOut.writeShort(640);
+        indexOut.writeInt(3);
+        indexOut.writeInt(2);
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream();
+        DataOutputStream bundleOut = new DataOutputStream(bundle);
+        bundleOut.writeInt(0x41514231);
+        bundleOut.writeInt(index.size());
+        index.writeTo(bundleOut);
+        bundleOut.write(new byte[] {1, 2, 3, 4, 5}); // image bytes
+
+        AnimalImageManifest manifest = AnimalImageManifest.readBundle(ByteBuffer.wrap(bundle.toByteArray()));
+
+        assertArrayEquals(new String[] {"Wild_Animals-Bear.png"}, manifest.getFileNames("Wild_Animals"));
+        AnimalImageManifest.Variant variant = manifest.pickVariant("Wild_Animals/Wild_Animals-Bear.png", 400, 400);
+        assertTrue(variant.isInBundle());
+        assertEquals(640, variant.height);
+        ByteBuffer slice = manifest.getBundleSlice(variant);
+        assertEquals(2, slice.remaining());
+        assertEquals(4, slice.get(0));
+        assertEquals(5, slice.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void readBundle_rejectsOtherFiles() throws IOException {
+        AnimalImageManifest.readBundle(ByteBuffer.wrap(MANIFEST.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test(expected = IOException.class)
+    public void readBundle_rejectsAnimalWithoutVariants() throws IOException {
+        AnimalImageManifest.readBundle(ByteBuffer.wrap(bundleWithVariants()));
+    }
+
+    @Test(expected = IOException.class)
+    public void readBundle_rejectsOffsetPastIntRange() throws IOException {
+        AnimalImageManifest.readBundle(ByteBuffer.wrap(bundleWithVariants(Integer.MAX_VALUE, 2))); // wrapped to negative as an int sum
+    }
+
+    @Test(expected = IOException.class)
+    public void readBundle_rejectsNegativeLength() throws IOException {
+        AnimalImageManifest.readBundle(ByteBuffer.wrap(bundleWithVariants(0, -1)));
+    }
+
+    // one animal, offsetsAndLengths -> offset & length of each variant
+    private static byte[] bundleWithVariants(int... offsetsAndLengths) throws IOException {
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        indexOut.writeInt(1);
+        writeString(indexOut, "Wild_Animals");
+        indexOut.writeInt(1);
+        indexOut.writeShort(0);
+        writeString(indexOut, "Wild_Animals-Bear");
+        indexOut.writeByte(offsetsAndLengths.length / 2);
+        for (int i = 0; i < offsetsAndLengths.length; i += 2) {
+            indexOut.writeShort(214);
+            indexOut.writeShort(240);
+            indexOut.writeInt(offsetsAndLengths[i]);
+            indexOut.writeInt(offsetsAndLengths[i + 1]);
+        }
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream();
+        DataOutputStream bundleOut = new DataOutputStream(bundle);
+        bundleOut.writeInt(0x41514231);
+        bundleOut.writeInt(index.size());
+        index.writeTo(bundleOut);
+        bundleOut.write(new byte[] {1, 2, 3, 4, 5});
+        return bundle.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
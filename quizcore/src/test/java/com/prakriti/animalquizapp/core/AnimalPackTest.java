@@ -0,0 +1,91 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class AnimalPackTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("animal-pack").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void open_indexesTypeFoldersOnly() throws IOException {
+        File zip = writeZip("birds.zip", "Birds/", "Birds/Birds-Robin.png", "Birds/Birds-Owl.png",
+                "Wild_Animals/Wild_Animals-Wolf.png", "readme.txt", "Birds/nested/Birds-Crow.png", "../Birds-Evil.png");
+        try (AnimalPack pack = AnimalPack.open(zip)) {
+            assertEquals(Arrays.asList("Birds", "Wild_Animals"), pack.getAnimalTypes());
+            assertArrayEquals(new String[] {"Birds-Robin.png", "Birds-Owl.png"}, pack.getFileNames("Birds"));
+        }
+    }
+
+    @Test
+    public void addTo_keepsIdsOfBaseAndExtractsOnFirstUse() throws IOException {
+        AnimalCatalog base = new AnimalCatalog.Builder()
+                .addAnimalType("Wild_Animals", new String[] {"Wild_Animals-Bear.png", "Wild_Animals-Wolf.png"})
+                .build();
+        File zip = writeZip("birds.zip", "Birds/Birds-Robin.png", "Wild_Animals/Wild_Animals-Wolf.png", "Wild_Animals/Wild_Animals-Lynx.png");
+        try (AnimalPack pack = AnimalPack.open(zip)) {
+            AnimalCatalog.Builder builder = new AnimalCatalog.Builder(base);
+            pack.addTo(builder);
+            AnimalCatalog catalog = builder.build();
+
+            assertEquals(4, catalog.size()); // wolf is already in the assets
+            assertEquals("Wild_Animals/Wild_Animals-Wolf.png", catalog.getImagePath(1));
+            assertEquals("Wild_Animals-Lynx", catalog.getAnimalName(3));
+            assertEquals(3, catalog.getAnimalIdsOfType("Wild_Animals").length);
+            String robinPath = catalog.getImagePath(catalog.findAnimalId("Birds-Robin"));
+            assertEquals("pack:birds.zip/Birds/Birds-Robin.png", robinPath);
+            assertTrue(AnimalPack.isPackImagePath(robinPath));
+            assertEquals("birds.zip", AnimalPack.getPackFileName(robinPath));
+
+            File cacheDirectory = new File(directory, "cache");
+            File image = pack.extractImage(robinPath, cacheDirectory);
+            assertEquals("Birds/Birds-Robin.png", new String(Files.readAllBytes(image.toPath()), StandardCharsets.UTF_8));
+            assertEquals(image, pack.extractImage(robinPath, cacheDirectory)); // already there, not copied again
+            assertEquals(1, image.getParentFile().list().length); // no temp files left
+        }
+    }
+
+    private File writeZip(String fileName, String... entryNames) throws IOException {
+        File zip = new File(directory, fileName);
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            for (String entryName : entryNames) {
+                out.putNextEntry(new ZipEntry(entryName));
+                out.write(entryName.getBytes(StandardCharsets.UTF_8)); // content is the name, enough to tell images apart
+                out.closeEntry();
+            }
+        }
+        return zip;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
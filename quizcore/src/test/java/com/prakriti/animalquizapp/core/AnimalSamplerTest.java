@@ -0,0 +1,87 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class AnimalSamplerTest {
+
+    private static int[] idsUpTo(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    @Test
+    public void sample_returnsDistinctIdsFromPool() {
+        AnimalSampler sampler = new AnimalSampler(RandomSources.seeded(7));
+        sampler.setPool(idsUpTo(30));
+        int[] sampledIds = new int[10];
+        assertEquals(10, sampler.sample(10, sampledIds));
+
+        Set<Integer> seen = new HashSet<>();
+        for (int animalId : sampledIds) {
+            assertTrue(animalId >= 0 && animalId < 30);
+            assertTrue(seen.add(animalId));
+        }
+    }
+
+    @Test
+    public void sample_moreThanPool_returnsWholePool() {
+        AnimalSampler sampler = new AnimalSampler(RandomSources.seeded(7));
+        sampler.setPool(idsUpTo(4));
+        int[] sampledIds = new int[10];
+        assertEquals(4, sampler.sample(10, sampledIds));
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            seen.add(sampledIds[i]);
+        }
+        assertEquals(4, seen.size());
+    }
+
+    @Test
+    public void sample_emptyPool_returnsNothing() {
+        AnimalSampler sampler = new AnimalSampler(RandomSources.seeded(7));
+        sampler.setPool(new int[0]);
+        assertEquals(0, sampler.sample(10, new int[10]));
+    }
+
+    @Test
+    public void sample_sameSeed_sameQuiz() {
+        AnimalSampler first = new AnimalSampler(RandomSources.seeded(42));
+        AnimalSampler second = new AnimalSampler(RandomSources.seeded(42));
+        first.setPool(idsUpTo(25));
+        second.setPool(idsUpTo(25));
+        int[] firstIds = new int[10];
+        int[] secondIds = new int[10];
+        for (int quiz = 0; quiz < 3; quiz++) { // pool order carries over between quizzes, must still match
+            first.sample(10, firstIds);
+            second.sample(10, secondIds);
+            assertArrayEquals(firstIds, secondIds);
+        }
+    }
+
+    @Test
+    public void setPool_smallerPoolReusesArray_samplesOnlyNewIds() {
+        AnimalSampler sampler = new AnimalSampler(RandomSources.seeded(7));
+        sampler.setPool(idsUpTo(30));
+        sampler.sample(10, new int[10]);
+        sampler.setPool(new int[] {40, 41, 42, 99}, 3); // ids after count are not in the pool
+        assertEquals(3, sampler.getPoolSize());
+        int[] sampledIds = new int[5];
+        assertEquals(3, sampler.sample(10, sampledIds, 2));
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 2; i < 5; i++) {
+            seen.add(sampledIds[i]);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(40, 41, 42)), seen);
+    }
+}
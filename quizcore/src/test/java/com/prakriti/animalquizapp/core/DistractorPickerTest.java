@@ -0,0 +1,44 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DistractorPickerTest {
+
+    @Test
+    public void pickOptions_containsCorrectAnswerOnceAtReturnedIndex() {
+        DistractorPicker picker = new DistractorPicker(RandomSources.seeded(3));
+        picker.setPool(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, 10);
+        int[] options = new int[6];
+        for (int correctAnimalId = 0; correctAnimalId < 10; correctAnimalId++) {
+            int correctIndex = picker.pickOptions(correctAnimalId, 6, options);
+            assertEquals(correctAnimalId, options[correctIndex]);
+
+            Set<Integer> seen = new HashSet<>();
+            for (int animalId : options) {
+                assertTrue(seen.add(animalId)); // no repeated names on the buttons
+            }
+        }
+    }
+
+    @Test
+    public void pickOptions_smallPool_fillsOnlyAvailableOptions() {
+        DistractorPicker picker = new DistractorPicker(RandomSources.seeded(3));
+        picker.setPool(new int[] {4, 7, 9}, 10);
+        assertEquals(3, picker.getNumOfOptions(6));
+
+        int[] options = new int[6];
+        int correctIndex = picker.pickOptions(7, 6, options);
+        assertEquals(7, options[correctIndex]);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            seen.add(options[i]);
+        }
+        assertEquals(3, seen.size());
+        assertTrue(seen.contains(4) && seen.contains(9));
+    }
+}
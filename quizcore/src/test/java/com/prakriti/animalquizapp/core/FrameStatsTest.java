@@ -0,0 +1,36 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameStatsTest {
+
+    private static final long FRAME_NANOS = 16_666_667; // 60 Hz
+
+    @Test
+    public void longFrames_countMissedIntervalsAsDropped() {
+        FrameStats frameStats = new FrameStats(FRAME_NANOS);
+        long vsyncNanos = 0;
+        frameStats.onFrame(vsyncNanos);
+        frameStats.onFrame(vsyncNanos += FRAME_NANOS + 300_000); // jitter, still on time
+        frameStats.onFrame(vsyncNanos += 3 * FRAME_NANOS); // 2 frames missed
+
+        assertEquals(2, frameStats.getNumOfFrames());
+        assertEquals(2, frameStats.getNumOfDroppedFrames());
+        assertEquals(3 * FRAME_NANOS, frameStats.getLongestFrameNanos());
+    }
+
+    @Test
+    public void gapBetweenStretches_isNotCounted() {
+        FrameStats frameStats = new FrameStats(FRAME_NANOS);
+        frameStats.onFrame(0);
+        frameStats.onFrame(FRAME_NANOS);
+        frameStats.endStretch();
+        frameStats.onFrame(5_000_000_000L); // next transition, seconds later
+        frameStats.onFrame(5_000_000_000L + FRAME_NANOS);
+
+        assertEquals(2, frameStats.getNumOfFrames());
+        assertEquals(0, frameStats.getNumOfDroppedFrames());
+    }
+}
@@ -0,0 +1,58 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void histogram_percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) { // 1 us .. 10 ms, evenly
+            histogram.record(micros * 1_000);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(5_000_000, histogram.getValueAtPercentile(0.5), 5_000_000 / 16.0);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(0.99), 9_900_000 / 16.0);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(1)); // capped at the max
+        assertEquals(5_000_500, histogram.getMeanNanos());
+
+        for (long value : new long[] {0, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value <= LatencyHistogram.highestValueInBucket(index));
+            assertTrue(index == 0 || value > LatencyHistogram.highestValueInBucket(index - 1));
+        }
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        MetricsRegistry metrics = new MetricsRegistry(false);
+        long startNanos = metrics.startTimer();
+        assertEquals(MetricsRegistry.NOT_TIMED, startNanos);
+        metrics.stopTimer(MetricsRegistry.ANSWER, startNanos);
+        metrics.increment(MetricsRegistry.CORRECT_ANSWERS);
+        assertNull(metrics.getHistogram(MetricsRegistry.ANSWER));
+        assertEquals(0, metrics.getCount(MetricsRegistry.CORRECT_ANSWERS));
+
+        metrics.setEnabled(true);
+        metrics.stopTimer(MetricsRegistry.ANSWER, startNanos); // started while disabled, still not timed
+        assertNull(metrics.getHistogram(MetricsRegistry.ANSWER));
+    }
+
+    @Test
+    public void toJson_countersAndHistograms() {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        metrics.increment(MetricsRegistry.WRONG_ANSWERS);
+        metrics.increment(MetricsRegistry.WRONG_ANSWERS);
+        metrics.recordNanos(MetricsRegistry.IMAGE_DECODE, 12);
+
+        assertEquals("{\"enabled\":true,\"counters\":{\"wrong_answers\":2},\"histograms\":{\"image_decode\":"
+                + "{\"count\":1,\"meanNanos\":12,\"p50Nanos\":12,\"p90Nanos\":12,\"p99Nanos\":12,\"p999Nanos\":12,\"maxNanos\":12}}}",
+                metrics.toJson());
+        metrics.reset();
+        assertEquals(0, metrics.getCount(MetricsRegistry.WRONG_ANSWERS));
+        assertEquals(0, metrics.getHistogram(MetricsRegistry.IMAGE_DECODE).getCount());
+    }
+}
@@ -0,0 +1,27 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuestionTimerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void pausedTime_doesNotCount() {
+        QuestionTimer timer = new QuestionTimer(10 * SECOND);
+        timer.start(100 * SECOND);
+        assertEquals(10 * SECOND, timer.getRemainingNanos(100 * SECOND - 5)); // frame that began just before the start
+        timer.pause(103 * SECOND);
+        timer.resume(500 * SECOND); // back from the background
+        assertEquals(7 * SECOND, timer.getRemainingNanos(500 * SECOND));
+        assertFalse(timer.isExpired(506 * SECOND));
+        assertTrue(timer.isExpired(507 * SECOND));
+
+        assertEquals(8 * SECOND, timer.stop(505 * SECOND));
+        assertFalse(timer.isStarted());
+        timer.resume(600 * SECOND); // nothing being timed
+        assertFalse(timer.isRunning());
+    }
+}
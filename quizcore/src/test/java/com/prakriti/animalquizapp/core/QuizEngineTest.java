@@ -0,0 +1,235 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class QuizEngineTest {
+
+    private QuizEngine quizEngine;
+
+    @Before
+    public void setUp() {
+        AnimalCatalog animalCatalog = new AnimalCatalog.Builder()
+                .addAnimalType("Wild_Animals", new String[] {"Wild_Animals-Bear.png", "Wild_Animals-Lion.png",
+                        "Wild_Animals-Pink_Panther.png", "Wild_Animals-Tiger.png", "Wild_Animals-Fox.png"})
+                .addAnimalType("Domestic_Animals", new String[] {"Domestic_Animals-Cat.png", "Domestic_Animals-Dog.png"})
+                .build();
+        quizEngine = new QuizEngine(RandomSources.seeded(11));
+        quizEngine.setAnimalCatalog(animalCatalog);
+        quizEngine.setAnimalTypes(new HashSet<>(Arrays.asList("Wild_Animals", "Domestic_Animals")));
+        quizEngine.setNumOfOptions(4);
+    }
+
+    @Test
+    public void catalog_precomputesDisplayNamesAndPaths() {
+        AnimalCatalog animalCatalog = quizEngine.getAnimalCatalog();
+        assertEquals(7, animalCatalog.size());
+        assertEquals("Pink Panther", animalCatalog.getDisplayName(2));
+        assertEquals("Wild_Animals/Wild_Animals-Pink_Panther.png", animalCatalog.getImagePath(2));
+        assertEquals(2, animalCatalog.getAnimalIdsForTypes(new HashSet<>(Arrays.asList("Domestic_Animals"))).length);
+    }
+
+    @Test
+    public void reset_fewerAnimalsThanQuestions_asksEachAnimalOnce() {
+        assertTrue(quizEngine.reset());
+        assertEquals(7, quizEngine.getNumOfQuestionsInQuiz());
+    }
+
+    @Test
+    public void playingCorrectly_finishesWithFullScore() {
+        quizEngine.reset();
+        Set<Integer> askedAnimals = new HashSet<>();
+        QuizEngine.AnswerResult answerResult = null;
+        while (answerResult != QuizEngine.AnswerResult.QUIZ_FINISHED) {
+            quizEngine.startQuestion();
+            assertTrue(askedAnimals.add(quizEngine.getCurrentAnimalId()));
+            answerResult = quizEngine.checkAnswer(correctOptionIndex());
+        }
+        assertEquals(7, quizEngine.getNumOfGuesses());
+        assertEquals(100.0, quizEngine.getScore(), 0.001);
+    }
+
+    @Test
+    public void wrongGuess_keepsQuestionAndLowersScore() {
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        int animalId = quizEngine.getCurrentAnimalId();
+        int wrongOptionIndex = (correctOptionIndex() + 1) % quizEngine.getNumOfOptions();
+
+        assertEquals(QuizEngine.AnswerResult.WRONG, quizEngine.checkAnswer(wrongOptionIndex));
+        assertEquals(animalId, quizEngine.getCurrentAnimalId());
+        assertEquals(QuizEngine.AnswerResult.CORRECT, quizEngine.checkAnswer(correctOptionIndex()));
+        assertEquals(2, quizEngine.getNumOfGuesses());
+    }
+
+    @Test
+    public void changeAnimalTypes_keepsProgressAndReplacesUpcomingQuestions() {
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        quizEngine.checkAnswer(correctOptionIndex()); // one question done
+        quizEngine.startQuestion();
+        int currentAnimalId = quizEngine.getCurrentAnimalId();
+
+        quizEngine.changeAnimalTypes(new HashSet<>(Arrays.asList("Domestic_Animals")));
+
+        assertEquals(1, quizEngine.getNumOfCorrectAnswers());
+        assertEquals(currentAnimalId, quizEngine.getCurrentAnimalId()); // question on screen stays
+        AnimalCatalog animalCatalog = quizEngine.getAnimalCatalog();
+        for (int questionsAhead = 1; quizEngine.getUpcomingAnimalId(questionsAhead) >= 0; questionsAhead++) {
+            assertEquals("Domestic_Animals", animalCatalog.getAnimalType(quizEngine.getUpcomingAnimalId(questionsAhead)));
+        }
+        assertTrue(quizEngine.refreshOptions());
+        for (int i = 0; i < quizEngine.getNumOfOptions(); i++) { // wrong answers only from the new selection
+            int optionId = quizEngine.getOptionId(i);
+            assertTrue(optionId == currentAnimalId || animalCatalog.getAnimalType(optionId).equals("Domestic_Animals"));
+        }
+    }
+
+    @Test
+    public void changeNumOfQuestions_midQuiz_keepsAnsweredAndCurrentQuestion() {
+        quizEngine.setNumOfQuestions(5);
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        quizEngine.checkAnswer(correctOptionIndex());
+        quizEngine.startQuestion();
+        int currentAnimalId = quizEngine.getCurrentAnimalId();
+
+        quizEngine.changeNumOfQuestions(1); // shorter than what is already played
+        assertEquals(2, quizEngine.getNumOfQuestionsInQuiz());
+        assertEquals(currentAnimalId, quizEngine.getCurrentAnimalId());
+
+        quizEngine.changeNumOfQuestions(7); // longer, new animals are not repeated
+        assertEquals(7, quizEngine.getNumOfQuestionsInQuiz());
+        Set<Integer> askedAnimalIds = new HashSet<>();
+        askedAnimalIds.add(currentAnimalId);
+        for (int questionsAhead = 1; quizEngine.getUpcomingAnimalId(questionsAhead) >= 0; questionsAhead++) {
+            assertTrue(askedAnimalIds.add(quizEngine.getUpcomingAnimalId(questionsAhead)));
+        }
+        assertEquals(6, askedAnimalIds.size());
+    }
+
+    @Test
+    public void changeNumOfQuestions_beyondCapacity_keepsCurrentQuestion() {
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        quizEngine.checkAnswer(correctOptionIndex());
+        quizEngine.startQuestion();
+        int currentAnimalId = quizEngine.getCurrentAnimalId();
+
+        quizEngine.changeNumOfQuestions(QuizEngine.DEFAULT_NUM_OF_QUESTIONS * 2); // question array has to grow
+        assertEquals(currentAnimalId, quizEngine.getCurrentAnimalId());
+        assertEquals(quizEngine.getAnimalCatalog().size(), quizEngine.getNumOfQuestionsInQuiz());
+    }
+
+    @Test
+    public void snapshot_restoresProgressIntoRebuiltCatalog() {
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        quizEngine.checkAnswer((correctOptionIndex() + 1) % quizEngine.getNumOfOptions()); // wrong
+        quizEngine.checkAnswer(correctOptionIndex());
+        assertEquals(2, quizEngine.getNumOfGuessesForLastQuestion());
+        quizEngine.startQuestion();
+        String currentAnimal = quizEngine.getAnimalCatalog().getAnimalName(quizEngine.getCurrentAnimalId());
+        QuizEngine.Snapshot snapshot = quizEngine.saveSnapshot();
+
+        QuizEngine restoredEngine = new QuizEngine(RandomSources.seeded(5));
+        restoredEngine.setAnimalCatalog(new AnimalCatalog.Builder() // same animals, other order -> other ids
+                .addAnimalType("Domestic_Animals", new String[] {"Domestic_Animals-Dog.png", "Domestic_Animals-Cat.png"})
+                .addAnimalType("Wild_Animals", new String[] {"Wild_Animals-Fox.png", "Wild_Animals-Tiger.png",
+                        "Wild_Animals-Pink_Panther.png", "Wild_Animals-Lion.png", "Wild_Animals-Bear.png"})
+                .build());
+        restoredEngine.setAnimalTypes(new HashSet<>(Arrays.asList("Wild_Animals", "Domestic_Animals")));
+        restoredEngine.setNumOfOptions(4);
+        assertTrue(restoredEngine.restoreSnapshot(snapshot));
+        restoredEngine.startQuestion();
+
+        assertEquals(currentAnimal, restoredEngine.getAnimalCatalog().getAnimalName(restoredEngine.getCurrentAnimalId()));
+        assertEquals(1, restoredEngine.getNumOfCorrectAnswers());
+        assertEquals(2, restoredEngine.getNumOfGuesses());
+        assertEquals(quizEngine.getNumOfQuestionsInQuiz(), restoredEngine.getNumOfQuestionsInQuiz());
+    }
+
+    @Test
+    public void extendAnimalCatalog_midQuiz_keepsProgressAndAsksNewAnimals() {
+        quizEngine.setAdaptiveDifficulty(true);
+        quizEngine.setNumOfQuestions(10);
+        quizEngine.reset();
+        assertEquals(7, quizEngine.getNumOfQuestionsInQuiz()); // not enough animals yet
+        quizEngine.startQuestion();
+        quizEngine.checkAnswer(correctOptionIndex());
+        quizEngine.startQuestion();
+        int animalOnScreen = quizEngine.getCurrentAnimalId();
+
+        quizEngine.extendAnimalCatalog(new AnimalCatalog.Builder(quizEngine.getAnimalCatalog())
+                .addAnimalType("Wild_Animals", new String[] {"Wild_Animals-Wolf.png", "Wild_Animals-Lynx.png"}, "pack:wild.zip/Wild_Animals")
+                .addAnimalType("Birds", new String[] {"Birds-Robin.png", "Birds-Owl.png", "Birds-Crow.png"}, "pack:birds.zip/Birds")
+                .build());
+
+        assertEquals(animalOnScreen, quizEngine.getCurrentAnimalId());
+        assertEquals(9, quizEngine.getNumOfQuestionsInQuiz()); // topped up with the new wild animals, birds are not selected
+        Set<Integer> askedAnimals = new HashSet<>();
+        askedAnimals.add(animalOnScreen);
+        QuizEngine.AnswerResult answerResult = quizEngine.checkAnswer(correctOptionIndex());
+        while (answerResult != QuizEngine.AnswerResult.QUIZ_FINISHED) {
+            quizEngine.startQuestion();
+            askedAnimals.add(quizEngine.getCurrentAnimalId());
+            answerResult = quizEngine.checkAnswer(correctOptionIndex());
+        }
+        assertEquals(8, askedAnimals.size()); // the rest of the quiz, each animal once
+        assertTrue(askedAnimals.contains(quizEngine.getAnimalCatalog().findAnimalId("Wild_Animals-Lynx")));
+        assertEquals(1, quizEngine.getNumOfCorrectAnswers() - askedAnimals.size());
+    }
+
+    @Test
+    public void snapshot_withPackAnimals_restoredOnceThePackIsIndexed() {
+        AnimalCatalog baseCatalog = quizEngine.getAnimalCatalog();
+        AnimalCatalog packCatalog = new AnimalCatalog.Builder(baseCatalog)
+                .addAnimalType("Birds", new String[] {"Birds-Robin.png", "Birds-Owl.png", "Birds-Crow.png"}, "pack:birds.zip/Birds")
+                .build();
+        quizEngine.extendAnimalCatalog(packCatalog);
+        quizEngine.setAnimalTypes(new HashSet<>(Arrays.asList("Wild_Animals", "Domestic_Animals", "Birds")));
+        quizEngine.setNumOfQuestions(10); // every animal, so the birds are in it
+        quizEngine.reset();
+        quizEngine.startQuestion();
+        quizEngine.checkAnswer(correctOptionIndex());
+        quizEngine.startQuestion();
+        String currentAnimal = packCatalog.getAnimalName(quizEngine.getCurrentAnimalId());
+        QuizEngine.Snapshot snapshot = quizEngine.saveSnapshot();
+
+        QuizEngine restoredEngine = new QuizEngine(RandomSources.seeded(5));
+        restoredEngine.setAnimalCatalog(baseCatalog); // question bank loaded, pack not indexed yet
+        restoredEngine.setAnimalTypes(new HashSet<>(Arrays.asList("Wild_Animals", "Domestic_Animals", "Birds")));
+        restoredEngine.setNumOfOptions(4);
+        assertFalse(restoredEngine.restoreSnapshot(snapshot)); // birds are unknown, snapshot has to be kept
+        assertFalse(restoredEngine.isQuizInProgress());
+
+        restoredEngine.extendAnimalCatalog(new AnimalCatalog.Builder(baseCatalog)
+                .addAnimalType("Birds", new String[] {"Birds-Robin.png", "Birds-Owl.png", "Birds-Crow.png"}, "pack:birds.zip/Birds")
+                .build());
+        assertTrue(restoredEngine.restoreSnapshot(snapshot));
+        restoredEngine.startQuestion();
+
+        assertEquals(currentAnimal, restoredEngine.getAnimalCatalog().getAnimalName(restoredEngine.getCurrentAnimalId()));
+        assertEquals(1, restoredEngine.getNumOfCorrectAnswers());
+        assertEquals(10, restoredEngine.getNumOfQuestionsInQuiz());
+        for (int questionsAhead = 1; questionsAhead < 9; questionsAhead++) { // same order, pack animals included
+            assertEquals(snapshot.animalNames[1 + questionsAhead],
+                    restoredEngine.getAnimalCatalog().getAnimalName(restoredEngine.getUpcomingAnimalId(questionsAhead)));
+        }
+    }
+
+    private int correctOptionIndex() {
+        for (int i = 0; i < quizEngine.getNumOfOptions(); i++) {
+            if (quizEngine.getOptionId(i) == quizEngine.getCurrentAnimalId()) {
+                return i;
+            }
+        }
+        throw new AssertionError("correct answer not in options");
+    }
+}
@@ -0,0 +1,155 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class QuizHistoryStoreTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("quiz-history").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void failedWrite_reportedAndRetried() throws Exception {
+        File results = new File(directory, "results.bin");
+        assertTrue(results.mkdir()); // can't be opened as a file, every write fails
+        QuizHistoryStore store = new QuizHistoryStore(directory, 60_000);
+        final List<IOException> failures = new ArrayList<>();
+        final int[] numOfResultsLost = {0};
+        store.setErrorListener(new QuizHistoryStore.ErrorListener() {
+            @Override
+            public void onWriteFailed(IOException e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+
+            @Override
+            public void onRecordsLost(IOException e, int numOfQuestions, int numOfResults) {
+                numOfResultsLost[0] += numOfResults;
+            }
+        });
+        store.recordResult(new QuizResult(3, 4, 10, 11, 100 * 10 / 11.0));
+        final IOException[] readFailure = new IOException[1];
+        final CountDownLatch read = new CountDownLatch(1);
+        store.readResults(0, 10, new QuizHistoryStore.ResultsCallback() {
+            @Override
+            public void onResultsRead(List<QuizResult> results, int totalNumOfResults) {
+                read.countDown();
+            }
+
+            @Override
+            public void onError(IOException e) {
+                readFailure[0] = e;
+                read.countDown();
+            }
+        });
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        assertNotNull(readFailure[0]); // not an empty page
+        synchronized (failures) {
+            assertFalse(failures.isEmpty());
+        }
+
+        assertTrue(results.delete()); // disk is fine again
+        store.close(); // batch that failed is still pending & written now
+        assertTrue(store.awaitClosed(5_000));
+        assertEquals(0, numOfResultsLost[0]);
+        List<QuizResult> written = store.readResultsNow(0, 10);
+        assertEquals(1, written.size());
+        assertEquals(3, written.get(0).getQuizId());
+    }
+
+    @Test
+    public void failedWriteOnClose_reportedAsLost() throws Exception {
+        assertTrue(new File(directory, "results.bin").mkdir()); // every write of a result fails
+        QuizHistoryStore store = new QuizHistoryStore(directory, 60_000);
+        final int[] lost = {-1, -1};
+        store.setErrorListener(new QuizHistoryStore.ErrorListener() {
+            @Override
+            public void onWriteFailed(IOException e) {
+            }
+
+            @Override
+            public void onRecordsLost(IOException e, int numOfQuestions, int numOfResults) {
+                lost[0] = numOfQuestions;
+                lost[1] = numOfResults;
+            }
+        });
+        store.recordQuestion(3, 1, "Wild_Animals-Bear", 1, 1_000);
+        store.recordResult(new QuizResult(3, 4, 10, 11, 100 * 10 / 11.0));
+        store.close();
+        assertTrue(store.awaitClosed(5_000)); // no retry is left waiting
+        assertEquals(0, lost[0]); // questions were written, only the result is gone
+        assertEquals(1, lost[1]);
+    }
+
+    @Test
+    public void results_readBackInPagesNewestFirst() throws Exception {
+        QuizHistoryStore store = new QuizHistoryStore(directory, 60_000); // only written on close
+        for (int quiz = 0; quiz < 25; quiz++) {
+            store.recordQuestion(quiz, 1, "Wild_Animals-Bear", 2, 1_000 + quiz);
+            store.recordResult(new QuizResult(quiz, 2_000 + quiz, 10, 12, 100 * 10 / 12.0));
+        }
+        store.close();
+        assertTrue(store.awaitClosed(5_000));
+
+        QuizHistoryStore reopened = new QuizHistoryStore(directory, 60_000);
+        reopened.close();
+        assertTrue(reopened.awaitClosed(5_000));
+        assertEquals(25, reopened.getNumOfResults());
+        List<QuizResult> firstPage = reopened.readResultsNow(0, 10);
+        assertEquals(10, firstPage.size());
+        assertEquals(24, firstPage.get(0).getQuizId());
+        assertEquals(15, firstPage.get(9).getQuizId());
+        List<QuizResult> lastPage = reopened.readResultsNow(20, 10);
+        assertEquals(5, lastPage.size());
+        assertEquals(0, lastPage.get(4).getQuizId());
+        assertEquals(12, lastPage.get(4).getNumOfGuesses());
+        assertTrue(reopened.readResultsNow(30, 10).isEmpty());
+        assertEquals(25, Files.readAllLines(new File(directory, "questions.log").toPath()).size());
+    }
+
+    @Test
+    public void partialRecord_droppedOnOpen() throws Exception {
+        QuizHistoryStore store = new QuizHistoryStore(directory, 60_000);
+        store.recordResult(new QuizResult(7, 8, 10, 10, 100));
+        store.close();
+        assertTrue(store.awaitClosed(5_000));
+        try (FileOutputStream results = new FileOutputStream(new File(directory, "results.bin"), true)) {
+            results.write(new byte[] {1, 2, 3}); // process died in the middle of a write
+        }
+
+        QuizHistoryStore reopened = new QuizHistoryStore(directory, 60_000);
+        reopened.recordResult(new QuizResult(9, 10, 5, 6, 100 * 5 / 6.0));
+        reopened.close();
+        assertTrue(reopened.awaitClosed(5_000));
+
+        List<QuizResult> results = reopened.readResultsNow(0, 10);
+        assertEquals(2, results.size());
+        assertEquals(9, results.get(0).getQuizId());
+        assertEquals(7, results.get(1).getQuizId());
+    }
+}
@@ -0,0 +1,78 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StartupTraceTest {
+
+    private static final String FIRST_QUESTION = "first_question"; // any name can be a span, not only the app's phases
+
+    private static class FakeClock implements StartupTrace.Clock {
+        long nowNanos = 1_000;
+
+        @Override
+        public long nanoTime() {
+            return nowNanos;
+        }
+    }
+
+    @Test
+    public void spans_recordedOnceRelativeToStart() {
+        FakeClock clock = new FakeClock();
+        StartupTrace trace = new StartupTrace(clock);
+        clock.nowNanos += 2_000_000;
+        trace.begin(StartupTrace.PREFS);
+        clock.nowNanos += 3_000_000;
+        trace.end(StartupTrace.PREFS);
+        clock.nowNanos += 5_000_000;
+        trace.begin(StartupTrace.PREFS); // ignored, already recorded
+        trace.end(StartupTrace.PREFS);
+
+        assertEquals(3_000_000, trace.getDurationNanos(StartupTrace.PREFS));
+        assertEquals(5_000_000, trace.getEndNanos(StartupTrace.PREFS));
+        assertEquals(-1, trace.getDurationNanos(StartupTrace.FONTS));
+        assertEquals("{\"spans\":[{\"name\":\"prefs\",\"startNanos\":2000000,\"endNanos\":5000000,\"durationNanos\":3000000}]}",
+                trace.toJson());
+    }
+
+    @Test
+    public void findBudgetViolations_reportsSlowAndMissingSpans() {
+        FakeClock clock = new FakeClock();
+        StartupTrace trace = new StartupTrace(clock);
+        trace.begin(StartupTrace.CATALOG_SCAN);
+        clock.nowNanos += 40_000_000;
+        trace.end(StartupTrace.CATALOG_SCAN);
+
+        Map<String, Long> budgetsMillis = new LinkedHashMap<>();
+        budgetsMillis.put(StartupTrace.CATALOG_SCAN, 30L);
+        budgetsMillis.put(StartupTrace.FIRST_FRAME, 500L);
+        List<String> violations = trace.findBudgetViolations(budgetsMillis);
+
+        assertEquals(2, violations.size());
+        assertEquals("catalog_scan took 40.0 ms, budget is 30 ms", violations.get(0));
+        assertEquals("first_frame was not recorded", violations.get(1));
+    }
+
+    @Test
+    public void findBudgetViolations_spansWithinBudgetPass() { // real cold start timings are in ColdStartBenchmark
+        FakeClock clock = new FakeClock();
+        StartupTrace trace = new StartupTrace(clock);
+        trace.begin(StartupTrace.CATALOG_SCAN);
+        clock.nowNanos += 50_000_000; // exactly on budget
+        trace.end(StartupTrace.CATALOG_SCAN);
+        trace.begin(FIRST_QUESTION);
+        clock.nowNanos += 12_000_000;
+        trace.end(FIRST_QUESTION);
+
+        Map<String, Long> budgetsMillis = new LinkedHashMap<>();
+        budgetsMillis.put(StartupTrace.CATALOG_SCAN, 50L);
+        budgetsMillis.put(FIRST_QUESTION, 50L);
+        assertEquals(Collections.<String>emptyList(), trace.findBudgetViolations(budgetsMillis));
+    }
+}
@@ -0,0 +1,32 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaskQueueStatsTest {
+
+    @Test
+    public void depthAndLateness_followScheduledTasks() {
+        TaskQueueStats stats = new TaskQueueStats();
+        stats.onScheduled();
+        stats.onScheduled();
+        stats.onScheduled();
+        stats.onRun(2_000_000);
+        stats.onCancelled();
+        stats.onRun(-50_000); // ran a bit early by the other clock
+
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(3, stats.getMaxQueueDepth());
+        assertEquals(2, stats.getNumOfRun());
+        assertEquals(1, stats.getNumOfCancelled());
+        assertEquals(1_000_000, stats.getAverageLatenessNanos());
+        assertEquals(2_000_000, stats.getMaxLatenessNanos());
+
+        stats.onScheduled();
+        stats.reset();
+        assertEquals(1, stats.getQueueDepth()); // still waiting
+        assertEquals(1, stats.getMaxQueueDepth());
+        assertEquals(0, stats.getNumOfScheduled());
+    }
+}
@@ -0,0 +1,32 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimedScoreTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void points_fallOffWithLatencyAndGuesses() {
+        assertEquals(TimedScore.MAX_POINTS, TimedScore.getPoints(0, 10 * SECOND, 1));
+        assertEquals(55, TimedScore.getPoints(5 * SECOND, 10 * SECOND, 1));
+        assertEquals(27, TimedScore.getPoints(5 * SECOND, 10 * SECOND, 2));
+        assertEquals(TimedScore.MIN_POINTS, TimedScore.getPoints(10 * SECOND - 1, 10 * SECOND, 1));
+        assertEquals(0, TimedScore.getPoints(10 * SECOND, 10 * SECOND, 1)); // time ran out
+    }
+
+    @Test
+    public void recordAnswer_addsUp() {
+        TimedScore score = new TimedScore();
+        score.recordAnswer(0, 10 * SECOND, 1);
+        score.recordAnswer(5 * SECOND, 10 * SECOND, 1);
+        score.recordAnswer(12 * SECOND, 10 * SECOND, 3);
+
+        assertEquals(155, score.getTotalPoints());
+        assertEquals(3, score.getNumOfQuestions());
+        assertEquals(SECOND * 17 / 3, score.getAverageLatencyNanos());
+        assertEquals(100.0 * 155 / 300, score.getPercentage(), 0.001);
+    }
+}
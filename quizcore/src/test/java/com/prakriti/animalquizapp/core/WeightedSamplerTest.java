@@ -0,0 +1,54 @@
+package com.prakriti.animalquizapp.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class WeightedSamplerTest {
+
+    @Test
+    public void sample_followsWeights() {
+        WeightedSampler sampler = new WeightedSampler(5);
+        sampler.setWeight(1, 10);
+        sampler.setWeight(3, 30);
+        sampler.setWeight(4, 60);
+        sampler.setWeight(4, 0); // changed back, never picked
+        sampler.setWeight(0, 60);
+        assertEquals(100, sampler.getTotalWeight());
+
+        int[] counts = new int[5];
+        RandomSource random = RandomSources.seeded(7);
+        for (int i = 0; i < 100_000; i++) {
+            ++counts[sampler.sample(random)];
+        }
+        assertEquals(0, counts[2]);
+        assertEquals(0, counts[4]);
+        assertEquals(60_000, counts[0], 1_000);
+        assertEquals(10_000, counts[1], 1_000);
+        assertEquals(30_000, counts[3], 1_000);
+    }
+
+    @Test
+    public void sampleDistinct_skipsIdsInFrontAndRestoresWeights() {
+        WeightedSampler sampler = new WeightedSampler(10);
+        for (int id = 0; id < 10; id++) {
+            sampler.setWeight(id, id == 9 ? 0 : 1 + id);
+        }
+        int[] sampledIds = new int[10];
+        sampledIds[0] = 8;
+        sampledIds[1] = 2;
+        int numOfSampled = sampler.sampleDistinct(RandomSources.seeded(3), 20, sampledIds, 2);
+
+        assertEquals(7, numOfSampled); // 10 ids, 2 in front, 1 with no weight
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 2 + numOfSampled; i++) {
+            assertTrue(seen.add(sampledIds[i]));
+        }
+        assertFalse(seen.contains(9));
+        assertEquals(45, sampler.getTotalWeight()); // 1 + 2 + ... + 9, nothing left out any more
+        assertEquals(-1, new WeightedSampler(3).sample(RandomSources.seeded(3)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.prakriti.animalquizapp.sim;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// used heap every interval next to the number of quizzes played so far, to see whether a long session keeps growing
+class HeapSampler {
+
+    static final class Sample {
+        final long elapsedMillis, usedHeapBytes, numOfQuizzes;
+
+        Sample(long elapsedMillis, long usedHeapBytes, long numOfQuizzes) {
+            this.elapsedMillis = elapsedMillis;
+            this.usedHeapBytes = usedHeapBytes;
+            this.numOfQuizzes = numOfQuizzes;
+        }
+    }
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong quizzesPlayed; // counted by the players
+    private final List<Sample> samples = new ArrayList<>(); // guarded by this
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "heap-sampler");
+            thread.setDaemon(true); // never keeps the simulator alive
+            return thread;
+        }
+    });
+    private long startNanos;
+
+    HeapSampler(AtomicLong quizzesPlayed) {
+        this.quizzesPlayed = quizzesPlayed;
+    }
+
+    void start(long intervalMillis) {
+        startNanos = System.nanoTime();
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    List<Sample> stop() {
+        executor.shutdownNow();
+        sample(); // end of the run is always in
+        synchronized (this) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    // used heap after asking for a full collection, i.e. roughly what is still reachable
+    static long retainedHeapBytes() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) { // gc() is only a hint, a few rounds settle finalisers & soft refs
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private void sample() {
+        Sample sample = new Sample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                memory.getHeapMemoryUsage().getUsed(), quizzesPlayed.get());
+        synchronized (this) {
+            samples.add(sample);
+        }
+    }
+}
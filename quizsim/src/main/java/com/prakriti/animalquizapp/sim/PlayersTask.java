@@ -0,0 +1,114 @@
+package com.prakriti.animalquizapp.sim;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.QuizHistoryStore;
+import com.prakriti.animalquizapp.core.RandomSources;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+// plays players [firstPlayer, lastPlayer) - split in halves until a few players are left, results merged on the way up
+// a leaf plays its players one after another on one thread, so that thread's allocation counter belongs to them
+class PlayersTask extends RecursiveTask<SimulationResult> {
+
+    private static final long serialVersionUID = 1L; // ForkJoinTask is Serializable, tasks are never serialized here
+    private static final int PLAYERS_PER_LEAF = 4;
+
+    // settings & shared state of one simulation run
+    static final class Config {
+        AnimalCatalog animalCatalog;
+        List<Collection<String>> animalTypeChoices;
+        int numOfPlayers, numOfQuizzesPerPlayer;
+        double minAccuracy, maxAccuracy;
+        double settingsChangeRate;
+        long seed;
+        File historyDirectory; // null -> no QuizHistoryStore
+        AtomicLong quizzesPlayed = new AtomicLong();
+    }
+
+    private final Config config;
+    private final int firstPlayer, lastPlayer;
+
+    PlayersTask(Config config, int firstPlayer, int lastPlayer) {
+        this.config = config;
+        this.firstPlayer = firstPlayer;
+        this.lastPlayer = lastPlayer;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+        if (lastPlayer - firstPlayer > PLAYERS_PER_LEAF) {
+            int middle = (firstPlayer + lastPlayer) >>> 1;
+            PlayersTask secondHalf = new PlayersTask(config, middle, lastPlayer);
+            secondHalf.fork();
+            SimulationResult firstResult = new PlayersTask(config, firstPlayer, middle).compute();
+            return firstResult.merge(secondHalf.join());
+        }
+        SimulationResult result = null;
+        for (int player = firstPlayer; player < lastPlayer; player++) {
+            SimulationResult playerResult = playPlayer(player);
+            result = result == null ? playerResult : result.merge(playerResult);
+        }
+        return result;
+    }
+
+    // each player gets one combination of the settings, so every combination is played once there are enough players
+    private SimulationResult playPlayer(int player) {
+        int numOfOptionChoices = SimulatedPlayer.NUM_OF_OPTIONS.length;
+        int numOfQuestionChoices = SimulatedPlayer.NUM_OF_QUESTIONS.length;
+        int combination = player;
+        int numOfOptions = SimulatedPlayer.NUM_OF_OPTIONS[combination % numOfOptionChoices];
+        combination /= numOfOptionChoices;
+        int numOfQuestions = SimulatedPlayer.NUM_OF_QUESTIONS[combination % numOfQuestionChoices];
+        combination /= numOfQuestionChoices;
+        Collection<String> animalTypes = config.animalTypeChoices.get(combination % config.animalTypeChoices.size());
+        combination /= config.animalTypeChoices.size();
+        boolean isAdaptive = combination % 2 == 1;
+
+        QuizEngine quizEngine = new QuizEngine(RandomSources.seeded(config.seed * 1_000_003 + player));
+        quizEngine.setAdaptiveDifficulty(isAdaptive);
+        quizEngine.setAnimalCatalog(config.animalCatalog);
+        quizEngine.setNumOfOptions(numOfOptions);
+        quizEngine.setNumOfQuestions(numOfQuestions);
+        quizEngine.setAnimalTypes(animalTypes);
+        // spread evenly over the players, from the worst to the best
+        double accuracy = config.minAccuracy + (config.maxAccuracy - config.minAccuracy) * player / Math.max(1, config.numOfPlayers - 1);
+        QuizHistoryStore historyStore = config.historyDirectory == null ? null
+                : new QuizHistoryStore(new File(config.historyDirectory, "player-" + player), QuizHistoryStore.DEFAULT_BATCH_DELAY_MS);
+        SimulatedPlayer simulatedPlayer = new SimulatedPlayer(config.animalCatalog, quizEngine,
+                RandomSources.seeded(~(config.seed * 1_000_003 + player)), accuracy, config.settingsChangeRate,
+                config.animalTypeChoices, historyStore);
+        SimulationResult result = new SimulationResult(config.numOfQuizzesPerPlayer * (numOfQuestions + 1) * 4);
+
+        long allocatedBefore = allocatedBytes();
+        simulatedPlayer.playQuizzes(config.numOfQuizzesPerPlayer, result);
+        long allocatedAfter = allocatedBytes();
+        if (allocatedBefore >= 0) {
+            result.onAllocated(allocatedAfter - allocatedBefore);
+        }
+        if (historyStore != null) {
+            historyStore.close(); // written in the background, not waited for
+        }
+        config.quizzesPlayed.addAndGet(result.getNumOfQuizzes());
+        return result;
+    }
+
+    // bytes allocated by the current thread so far, -1 if this JVM cannot tell
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspotThreads.isThreadAllocatedMemorySupported() || !hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return hotspotThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
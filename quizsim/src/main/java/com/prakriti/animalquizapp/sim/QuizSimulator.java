@@ -0,0 +1,181 @@
+package com.prakriti.animalquizapp.sim;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+// plays thousands of quizzes through quizcore on a fork-join pool & reports latency, allocation & heap growth
+// options:
+//   --players N          simulated players, each with its own engine & one combination of the settings (default 1000)
+//   --quizzes N          quizzes per player (default 20)
+//   --accuracy A[-B]     chance of a correct guess, spread from A to B over the players (default 0.4-0.95)
+//   --settings-changes R chance of changing a setting after a correct answer (default 0.02)
+//   --parallelism N      fork-join pool size (default: available processors)
+//   --animals DIR        folder with one sub folder of images per animal type (default app/src/main/animal-images)
+//   --synthetic N        made up catalog of N animals instead of the images
+//   --history            also record every answer in a QuizHistoryStore, in a temporary folder
+//   --seed N             for repeatable runs (default 1)
+public class QuizSimulator {
+
+    private static final String DEFAULT_ANIMALS_DIRECTORY = "app/src/main/animal-images";
+    private static final long HEAP_SAMPLE_INTERVAL_MS = 100;
+    private static final int HEAP_SAMPLES_SHOWN = 10;
+
+    public static void main(String[] args) throws IOException {
+        PlayersTask.Config config = new PlayersTask.Config();
+        config.numOfPlayers = 1000;
+        config.numOfQuizzesPerPlayer = 20;
+        config.minAccuracy = 0.4;
+        config.maxAccuracy = 0.95;
+        config.settingsChangeRate = 0.02;
+        config.seed = 1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String animalsDirectory = DEFAULT_ANIMALS_DIRECTORY;
+        int numOfSyntheticAnimals = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--players":
+                    config.numOfPlayers = Integer.parseInt(args[++i]);
+                    break;
+                case "--quizzes":
+                    config.numOfQuizzesPerPlayer = Integer.parseInt(args[++i]);
+                    break;
+                case "--accuracy":
+                    String[] range = args[++i].split("-");
+                    config.minAccuracy = Double.parseDouble(range[0]);
+                    config.maxAccuracy = Double.parseDouble(range[range.length - 1]);
+                    break;
+                case "--settings-changes":
+                    config.settingsChangeRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--parallelism":
+                    parallelism = Integer.parseInt(args[++i]);
+                    break;
+                case "--animals":
+                    animalsDirectory = args[++i];
+                    break;
+                case "--synthetic":
+                    numOfSyntheticAnimals = Integer.parseInt(args[++i]);
+                    break;
+                case "--history":
+                    config.historyDirectory = Files.createTempDirectory("quizsim-history").toFile();
+                    break;
+                case "--seed":
+                    config.seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        config.animalCatalog = numOfSyntheticAnimals > 0 ? syntheticCatalog(numOfSyntheticAnimals) : loadCatalog(new File(animalsDirectory));
+        config.animalTypeChoices = animalTypeChoices(config.animalCatalog.getAnimalTypes());
+        System.out.printf(Locale.US, "%d players x %d quizzes, %d animals, %d settings combinations, parallelism %d%n",
+                config.numOfPlayers, config.numOfQuizzesPerPlayer, config.animalCatalog.size(),
+                SimulatedPlayer.NUM_OF_OPTIONS.length * SimulatedPlayer.NUM_OF_QUESTIONS.length * config.animalTypeChoices.size() * 2,
+                parallelism);
+
+        long heapBeforeBytes = HeapSampler.retainedHeapBytes();
+        HeapSampler heapSampler = new HeapSampler(config.quizzesPlayed);
+        heapSampler.start(HEAP_SAMPLE_INTERVAL_MS);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long startNanos = System.nanoTime();
+        SimulationResult result = pool.invoke(new PlayersTask(config, 0, config.numOfPlayers));
+        long elapsedNanos = System.nanoTime() - startNanos;
+        pool.shutdown();
+        List<HeapSampler.Sample> heapSamples = heapSampler.stop();
+        long heapAfterBytes = HeapSampler.retainedHeapBytes();
+
+        report(result, elapsedNanos, heapSamples, heapBeforeBytes, heapAfterBytes);
+        if (config.historyDirectory != null) {
+            System.out.println("History written to " + config.historyDirectory);
+        }
+    }
+
+    private static void report(SimulationResult result, long elapsedNanos, List<HeapSampler.Sample> heapSamples,
+                               long heapBeforeBytes, long heapAfterBytes) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.US, "%d quizzes (%d without animals), %d questions, %d guesses, %d settings changes in %.2f s%n",
+                result.getNumOfQuizzes(), result.getNumOfEmptyQuizzes(), result.getNumOfQuestions(), result.getNumOfGuesses(),
+                result.getNumOfSettingsChanges(), elapsedSeconds);
+        System.out.printf(Locale.US, "throughput: %.0f guesses/s%n", result.getNumOfGuesses() / elapsedSeconds);
+        System.out.printf(Locale.US, "answer latency: p50 %.2f us, p90 %.2f us, p99 %.2f us, p99.9 %.2f us, max %.2f us%n",
+                result.getLatencyPercentile(0.5) / 1e3, result.getLatencyPercentile(0.9) / 1e3,
+                result.getLatencyPercentile(0.99) / 1e3, result.getLatencyPercentile(0.999) / 1e3,
+                result.getLatencyPercentile(1) / 1e3);
+        double bytesPerQuestion = result.getAllocatedBytesPerQuestion();
+        System.out.println(bytesPerQuestion < 0 ? "allocation per question: not supported by this JVM"
+                : String.format(Locale.US, "allocation per question: %.0f bytes", bytesPerQuestion));
+
+        System.out.println("heap over time (elapsed ms, quizzes played, used MB):");
+        int step = Math.max(1, (heapSamples.size() + HEAP_SAMPLES_SHOWN - 1) / HEAP_SAMPLES_SHOWN);
+        for (int i = 0; i < heapSamples.size(); i += step) {
+            printSample(heapSamples.get(i));
+        }
+        if ((heapSamples.size() - 1) % step != 0) {
+            printSample(heapSamples.get(heapSamples.size() - 1)); // last one is always shown
+        }
+        System.out.printf(Locale.US, "retained heap after gc: %.2f MB before, %.2f MB after (%+.2f MB)%n",
+                heapBeforeBytes / 1e6, heapAfterBytes / 1e6, (heapAfterBytes - heapBeforeBytes) / 1e6);
+    }
+
+    private static void printSample(HeapSampler.Sample sample) {
+        System.out.printf(Locale.US, "  %8d %10d %10.2f%n", sample.elapsedMillis, sample.numOfQuizzes, sample.usedHeapBytes / 1e6);
+    }
+
+    // same listing QuestionBank does from the assets, one folder per animal type
+    private static AnimalCatalog loadCatalog(File animalsDirectory) throws IOException {
+        File[] typeDirectories = animalsDirectory.listFiles();
+        if (typeDirectories == null) {
+            throw new IOException("No animal images in " + animalsDirectory.getAbsolutePath() + ", pass --animals or --synthetic");
+        }
+        Arrays.sort(typeDirectories);
+        AnimalCatalog.Builder builder = new AnimalCatalog.Builder();
+        for (File typeDirectory : typeDirectories) {
+            String[] fileNames = typeDirectory.list();
+            if (typeDirectory.isDirectory() && fileNames != null) {
+                Arrays.sort(fileNames);
+                builder.addAnimalType(typeDirectory.getName(), fileNames);
+            }
+        }
+        return builder.build();
+    }
+
+    private static AnimalCatalog syntheticCatalog(int numOfAnimals) { // half wild & half domestic, named like the real assets
+        AnimalCatalog.Builder builder = new AnimalCatalog.Builder();
+        String[] animalTypes = {"Wild_Animals", "Domestic_Animals"};
+        for (int typeIndex = 0; typeIndex < animalTypes.length; typeIndex++) {
+            String[] fileNames = new String[(numOfAnimals + 1 - typeIndex) / 2];
+            for (int i = 0; i < fileNames.length; i++) {
+                fileNames[i] = animalTypes[typeIndex] + "-Animal_" + i + ".png";
+            }
+            builder.addAnimalType(animalTypes[typeIndex], fileNames);
+        }
+        return builder.build();
+    }
+
+    // every non empty selection of animal types, like the multi select preference allows
+    private static List<Collection<String>> animalTypeChoices(List<String> animalTypes) {
+        List<Collection<String>> choices = new ArrayList<>();
+        for (int mask = 1; mask < 1 << animalTypes.size(); mask++) {
+            Collection<String> choice = new HashSet<>();
+            for (int typeIndex = 0; typeIndex < animalTypes.size(); typeIndex++) {
+                if ((mask & 1 << typeIndex) != 0) {
+                    choice.add(animalTypes.get(typeIndex));
+                }
+            }
+            choices.add(choice);
+        }
+        return choices;
+    }
+}
@@ -0,0 +1,174 @@
+package com.prakriti.animalquizapp.sim;
+
+import com.prakriti.animalquizapp.core.AnimalCatalog;
+import com.prakriti.animalquizapp.core.QuizEngine;
+import com.prakriti.animalquizapp.core.QuizHistoryStore;
+import com.prakriti.animalquizapp.core.QuizResult;
+import com.prakriti.animalquizapp.core.RandomSource;
+
+import java.util.Collection;
+import java.util.List;
+
+// one player going through MainFragment's flow without views - reset, prepare the next question, guess, repeat
+// keeps one engine for all its quizzes like the fragment does, so anything piling up in it shows in the heap
+// answers correctly with the given probability, otherwise taps a wrong button not tried yet
+class SimulatedPlayer {
+
+    // same choices as arrays.xml
+    static final int[] NUM_OF_OPTIONS = {2, 4, 6, 8, 9, 12, 16};
+    static final int[] NUM_OF_QUESTIONS = {5, 10, 15, 20};
+
+    private final AnimalCatalog animalCatalog;
+    private final QuizEngine quizEngine;
+    private final RandomSource random; // decisions of the player, the engine has its own
+    private final int accuracyPerMille; // chance of a correct guess
+    private final int settingsChangePerMille; // chance of changing a setting after a correct answer
+    private final List<Collection<String>> animalTypeChoices;
+    private final QuizHistoryStore historyStore; // null -> results are not recorded
+
+    // what MainFragment's QuestionFrame holds, written for every question like the real thing
+    private final String[] optionNames = new String[16];
+    private final boolean[] isTried = new boolean[16];
+    private String imagePath, upcomingImagePath;
+    private long quizId;
+
+    SimulatedPlayer(AnimalCatalog animalCatalog, QuizEngine quizEngine, RandomSource random, double accuracy,
+                    double settingsChangeRate, List<Collection<String>> animalTypeChoices, QuizHistoryStore historyStore) {
+        this.animalCatalog = animalCatalog;
+        this.quizEngine = quizEngine;
+        this.random = random;
+        this.accuracyPerMille = (int) Math.round(accuracy * 1000);
+        this.settingsChangePerMille = (int) Math.round(settingsChangeRate * 1000);
+        this.animalTypeChoices = animalTypeChoices;
+        this.historyStore = historyStore;
+    }
+
+    void playQuizzes(int numOfQuizzes, SimulationResult result) {
+        for (int quiz = 0; quiz < numOfQuizzes; quiz++) {
+            long startNanos = System.nanoTime();
+            if (!quizEngine.reset()) { // resetAnimalQuiz
+                result.onEmptyQuiz();
+                continue;
+            }
+            quizId++;
+            prepareNextQuestion();
+            result.recordLatency(System.nanoTime() - startNanos);
+            playQuiz(result);
+            result.onQuizFinished();
+        }
+    }
+
+    private void playQuiz(SimulationResult result) {
+        clearTried();
+        while (true) {
+            int optionIndex = pickGuess();
+            int answeredAnimalId = quizEngine.getCurrentAnimalId(); // engine moves on if correct
+            long startNanos = System.nanoTime(); // onClick up to the next question being ready
+            QuizEngine.AnswerResult answerResult = quizEngine.checkAnswer(optionIndex);
+            if (answerResult != QuizEngine.AnswerResult.WRONG) {
+                if (historyStore != null) {
+                    historyStore.recordQuestion(quizId, quizEngine.getNumOfCorrectAnswers(),
+                            animalCatalog.getAnimalName(answeredAnimalId),
+                            quizEngine.getNumOfGuessesForLastQuestion(), System.currentTimeMillis());
+                }
+                if (answerResult == QuizEngine.AnswerResult.QUIZ_FINISHED) {
+                    if (historyStore != null) {
+                        historyStore.recordResult(new QuizResult(quizId, System.currentTimeMillis(),
+                                quizEngine.getNumOfQuestionsInQuiz(), quizEngine.getNumOfGuesses(), quizEngine.getScore()));
+                    }
+                    result.recordLatency(System.nanoTime() - startNanos);
+                    result.onQuestionAnswered();
+                    return;
+                }
+                prepareNextQuestion();
+                result.recordLatency(System.nanoTime() - startNanos);
+                result.onQuestionAnswered();
+                clearTried();
+                if (random.nextInt(1000) < settingsChangePerMille && !changeRandomSetting(result)) {
+                    return; // no animals left to ask about
+                }
+            }
+            else {
+                result.recordLatency(System.nanoTime() - startNanos);
+                isTried[optionIndex] = true; // button disabled
+            }
+        }
+    }
+
+    // MainFragment.prepareNextQuestion & prefetchUpcomingImages, minus the views & the decoding
+    private void prepareNextQuestion() {
+        quizEngine.startQuestion();
+        fillOptions();
+        imagePath = animalCatalog.getImagePath(quizEngine.getCurrentAnimalId());
+        int upcomingAnimalId = quizEngine.getUpcomingAnimalId(1);
+        upcomingImagePath = upcomingAnimalId < 0 ? null : animalCatalog.getImagePath(upcomingAnimalId);
+    }
+
+    private void fillOptions() {
+        for (int optionIndex = 0; optionIndex < quizEngine.getNumOfOptions(); optionIndex++) {
+            optionNames[optionIndex] = animalCatalog.getDisplayName(quizEngine.getOptionId(optionIndex));
+        }
+    }
+
+    private int pickGuess() {
+        int numOfOptions = quizEngine.getNumOfOptions();
+        int correctIndex = 0;
+        while (quizEngine.getOptionId(correctIndex) != quizEngine.getCurrentAnimalId()) {
+            correctIndex++;
+        }
+        if (random.nextInt(1000) < accuracyPerMille) {
+            return correctIndex;
+        }
+        int numOfWrongLeft = 0;
+        for (int optionIndex = 0; optionIndex < numOfOptions; optionIndex++) {
+            if (optionIndex != correctIndex && !isTried[optionIndex]) {
+                numOfWrongLeft++;
+            }
+        }
+        if (numOfWrongLeft == 0) {
+            return correctIndex; // only the right button is still enabled
+        }
+        int wrongToPick = random.nextInt(numOfWrongLeft);
+        for (int optionIndex = 0; ; optionIndex++) {
+            if (optionIndex != correctIndex && !isTried[optionIndex] && wrongToPick-- == 0) {
+                return optionIndex;
+            }
+        }
+    }
+
+    // the apply*Change paths MainFragment takes when a setting changes mid quiz, returns false if the quiz cannot go on
+    private boolean changeRandomSetting(SimulationResult result) {
+        result.onSettingsChanged();
+        switch (random.nextInt(3)) {
+            case 0: // applyGuessRowsChange
+                quizEngine.setNumOfOptions(NUM_OF_OPTIONS[random.nextInt(NUM_OF_OPTIONS.length)]);
+                if (quizEngine.refreshOptions()) {
+                    fillOptions();
+                }
+                break;
+            case 1: // applyQuizLengthChange
+                quizEngine.changeNumOfQuestions(NUM_OF_QUESTIONS[random.nextInt(NUM_OF_QUESTIONS.length)]);
+                break;
+            default: // applyAnimalTypesChange
+                quizEngine.changeAnimalTypes(animalTypeChoices.get(random.nextInt(animalTypeChoices.size())));
+                if (!quizEngine.isQuizInProgress()) { // restarted like resetAnimalQuiz
+                    if (!quizEngine.reset()) {
+                        return false;
+                    }
+                    quizId++;
+                    prepareNextQuestion();
+                }
+                else if (quizEngine.refreshOptions()) {
+                    fillOptions();
+                }
+                break;
+        }
+        return true;
+    }
+
+    private void clearTried() {
+        for (int optionIndex = 0; optionIndex < isTried.length; optionIndex++) {
+            isTried[optionIndex] = false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.prakriti.animalquizapp.sim;
+
+import java.util.Arrays;
+
+// what one or more players measured, merged up the fork-join tree
+class SimulationResult {
+
+    private long[] latenciesNanos; // every guess, unsorted until percentiles are asked for
+    private int numOfLatencies;
+    private long numOfQuizzes, numOfEmptyQuizzes, numOfQuestions, numOfSettingsChanges;
+    private long allocatedBytes = -1; // -1 -> the JVM does not count allocations per thread
+    private long allocatedBytesQuestions; // questions played while allocations were counted
+
+    SimulationResult(int expectedLatencies) {
+        latenciesNanos = new long[expectedLatencies]; // sized up front, so recording does not allocate while measuring
+    }
+
+    void recordLatency(long nanos) {
+        if (numOfLatencies == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, latenciesNanos.length * 2); // only after many mid quiz restarts
+        }
+        latenciesNanos[numOfLatencies++] = nanos;
+    }
+
+    void onQuizFinished() {
+        ++numOfQuizzes;
+    }
+
+    void onEmptyQuiz() {
+        ++numOfEmptyQuizzes;
+    }
+
+    void onQuestionAnswered() {
+        ++numOfQuestions;
+    }
+
+    void onSettingsChanged() {
+        ++numOfSettingsChanges;
+    }
+
+    void onAllocated(long bytes) { // by the thread that played this result's questions
+        if (bytes < 0) {
+            return;
+        }
+        allocatedBytes = Math.max(allocatedBytes, 0) + bytes;
+        allocatedBytesQuestions += numOfQuestions;
+    }
+
+    SimulationResult merge(SimulationResult other) {
+        SimulationResult merged = new SimulationResult(numOfLatencies + other.numOfLatencies);
+        System.arraycopy(latenciesNanos, 0, merged.latenciesNanos, 0, numOfLatencies);
+        System.arraycopy(other.latenciesNanos, 0, merged.latenciesNanos, numOfLatencies, other.numOfLatencies);
+        merged.numOfLatencies = numOfLatencies + other.numOfLatencies;
+        merged.numOfQuizzes = numOfQuizzes + other.numOfQuizzes;
+        merged.numOfEmptyQuizzes = numOfEmptyQuizzes + other.numOfEmptyQuizzes;
+        merged.numOfQuestions = numOfQuestions + other.numOfQuestions;
+        merged.numOfSettingsChanges = numOfSettingsChanges + other.numOfSettingsChanges;
+        merged.allocatedBytes = allocatedBytes < 0 && other.allocatedBytes < 0 ? -1
+                : Math.max(allocatedBytes, 0) + Math.max(other.allocatedBytes, 0);
+        merged.allocatedBytesQuestions = allocatedBytesQuestions + other.allocatedBytesQuestions;
+        return merged;
+    }
+
+    // nanos at or below which the given fraction of guesses was handled, e.g. 0.99 -> p99
+    long getLatencyPercentile(double fraction) {
+        if (numOfLatencies == 0) {
+            return 0;
+        }
+        Arrays.sort(latenciesNanos, 0, numOfLatencies); // sorted once, later calls are cheap
+        int index = (int) Math.ceil(fraction * numOfLatencies) - 1;
+        return latenciesNanos[Math.max(0, Math.min(index, numOfLatencies - 1))];
+    }
+
+    int getNumOfGuesses() {
+        return numOfLatencies;
+    }
+
+    long getNumOfQuizzes() {
+        return numOfQuizzes;
+    }
+
+    long getNumOfEmptyQuizzes() {
+        return numOfEmptyQuizzes;
+    }
+
+    long getNumOfQuestions() {
+        return numOfQuestions;
+    }
+
+    long getNumOfSettingsChanges() {
+        return numOfSettingsChanges;
+    }
+
+    double getAllocatedBytesPerQuestion() { // -1 if unknown
+        return allocatedBytes < 0 || allocatedBytesQuestions == 0 ? -1 : allocatedBytes / (double) allocatedBytesQuestions;
+    }
+}